@@ -6,9 +6,12 @@ import com.turjo.uniquekits.config.ConfigManager;
 import com.turjo.uniquekits.config.LanguageManager;
 import com.turjo.uniquekits.gui.GuiManager;
 import com.turjo.uniquekits.hooks.HookManager;
+import com.turjo.uniquekits.kits.CooldownNotifier;
 import com.turjo.uniquekits.kits.KitManager;
 import com.turjo.uniquekits.listeners.PlayerListener;
 import com.turjo.uniquekits.placeholders.PlaceholderManager;
+import com.turjo.uniquekits.stats.KitStatsManager;
+import com.turjo.uniquekits.stats.LeaderboardManager;
 import com.turjo.uniquekits.storage.PlayerDataManager;
 import com.turjo.uniquekits.utils.MessageUtils;
 import com.turjo.uniquekits.utils.UpdateChecker;
@@ -29,6 +32,9 @@ public class UniqueKits extends JavaPlugin {
     private HookManager hookManager;
     private PlayerDataManager playerDataManager;
     private PlaceholderManager placeholderManager;
+    private CooldownNotifier cooldownNotifier;
+    private KitStatsManager kitStatsManager;
+    private LeaderboardManager leaderboardManager;
     
     @Override
     public void onLoad() {
@@ -54,6 +60,15 @@ public class UniqueKits extends JavaPlugin {
         // Start auto-save task
         playerDataManager.startAutoSaveTask();
         
+        // Start cooldown expiry notifications
+        cooldownNotifier.start();
+        
+        // Start periodic saving of kit statistics
+        kitStatsManager.startSaveTask();
+        
+        // Build kit usage leaderboards from storage
+        leaderboardManager.buildAsync();
+        
         // Check for updates
         checkForUpdates();
         
@@ -64,9 +79,21 @@ public class UniqueKits extends JavaPlugin {
     public void onDisable() {
         getLogger().info("§c[UniqueKits] Shutting down...");
         
-        // Save all player data
+        if (cooldownNotifier != null) {
+            cooldownNotifier.stop();
+        }
+        
+        if (kitManager != null) {
+            kitManager.shutdown();
+        }
+        
+        if (kitStatsManager != null) {
+            kitStatsManager.shutdown();
+        }
+        
+        // Save all player data and close the storage backend
         if (playerDataManager != null) {
-            playerDataManager.saveAllPlayerData();
+            playerDataManager.shutdown();
         }
         
         // Close adventure
@@ -83,10 +110,13 @@ public class UniqueKits extends JavaPlugin {
         this.configManager = new ConfigManager(this);
         this.languageManager = new LanguageManager(this);
         this.playerDataManager = new PlayerDataManager(this);
+        this.kitStatsManager = new KitStatsManager(this);
+        this.leaderboardManager = new LeaderboardManager(this);
         this.hookManager = new HookManager(this);
         this.kitManager = new KitManager(this);
         this.guiManager = new GuiManager(this);
         this.placeholderManager = new PlaceholderManager(this);
+        this.cooldownNotifier = new CooldownNotifier(this);
         
         getLogger().info("§a[UniqueKits] All managers initialized successfully!");
     }
@@ -119,8 +149,9 @@ public class UniqueKits extends JavaPlugin {
             configManager.reloadConfigs();
             languageManager.reloadLanguage();
             
-            // Reload kits
-            kitManager.reloadKits();
+            // Reload kits; parsed off the main thread and swapped in when ready
+            kitManager.reloadKitsAsync(null);
+            kitManager.getClaimParticles().reload();
             
             // Reload hooks
             hookManager.reloadHooks();
@@ -168,4 +199,16 @@ public class UniqueKits extends JavaPlugin {
     public PlaceholderManager getPlaceholderManager() {
         return placeholderManager;
     }
+    
+    public CooldownNotifier getCooldownNotifier() {
+        return cooldownNotifier;
+    }
+    
+    public KitStatsManager getKitStatsManager() {
+        return kitStatsManager;
+    }
+    
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,11 @@ package com.turjo.uniquekits.commands;
 
 import com.turjo.uniquekits.UniqueKits;
 import com.turjo.uniquekits.kits.Kit;
+import com.turjo.uniquekits.stats.KitStatsManager;
+import com.turjo.uniquekits.stats.KitUsageStats;
+import com.turjo.uniquekits.storage.PlayerData;
+import com.turjo.uniquekits.utils.ItemBuilder;
+import com.turjo.uniquekits.utils.ItemImportStats;
 import com.turjo.uniquekits.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -103,15 +108,21 @@ public class UniqueKitsCommand implements CommandExecutor, TabCompleter {
                 
             case "stats":
             case "statistics":
-                if (args.length >= 2) {
+                if (args.length >= 2 && args[1].equalsIgnoreCase("kits")) {
+                    showKitStats(sender);
+                } else if (args.length >= 2) {
                     showPlayerStats(sender, args[1]);
                 } else if (sender instanceof Player) {
                     showPlayerStats(sender, sender.getName());
                 } else {
-                    MessageUtils.sendMessage(sender, "<red>Usage: <yellow>/uk stats <player></yellow></red>");
+                    showKitStats(sender);
                 }
                 break;
                 
+            case "migrate":
+                migratePlayerData(sender);
+                break;
+                
             case "version":
             case "ver":
             case "info":
@@ -326,6 +337,29 @@ public class UniqueKitsCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    private void migratePlayerData(CommandSender sender) {
+        if (!sender.hasPermission("uniquekits.admin")) {
+            MessageUtils.sendMessage(sender, plugin.getLanguageManager().getMessage("general.no-permission"));
+            return;
+        }
+        
+        MessageUtils.sendMessage(sender, "<yellow>Converting YAML player files to the binary format...</yellow>");
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.currentTimeMillis();
+            int migrated = plugin.getPlayerDataManager().migratePlayerData();
+            long duration = System.currentTimeMillis() - start;
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (migrated < 0) {
+                    MessageUtils.sendMessage(sender, "<red>Player data is not using binary storage (settings.storage-format).</red>");
+                } else {
+                    MessageUtils.sendMessage(sender, "<green>Migrated <yellow>" + migrated + "</yellow> player files in <yellow>" + duration + "ms</yellow>.</green>");
+                }
+            });
+        });
+    }
+    
     private void showPlayerStats(CommandSender sender, String playerName) {
         if (!sender.hasPermission("uniquekits.admin") && !sender.getName().equals(playerName)) {
             MessageUtils.sendMessage(sender, plugin.getLanguageManager().getMessage("general.no-permission"));
@@ -339,28 +373,117 @@ public class UniqueKitsCommand implements CommandExecutor, TabCompleter {
         }
         
         // Show player statistics
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(target.getUniqueId());
+        String mostUsed = playerData.getMostUsedKit();
+        
         List<String> statsHeader = plugin.getLanguageManager().getMessageList("stats.header");
         MessageUtils.sendMessages(sender, statsHeader);
-        // Add stats implementation here
+        for (String line : plugin.getLanguageManager().getMessageList("stats.player")) {
+            MessageUtils.sendMessage(sender, line
+                .replace("{player}", target.getName())
+                .replace("{used}", String.valueOf(playerData.getTotalKitsUsed()))
+                .replace("{most_used}", mostUsed != null ? mostUsed : "None")
+                .replace("{cooldowns}", String.valueOf(playerData.getActiveCooldowns())));
+        }
         List<String> statsFooter = plugin.getLanguageManager().getMessageList("stats.footer");
         MessageUtils.sendMessages(sender, statsFooter);
     }
     
+    private void showKitStats(CommandSender sender) {
+        if (!sender.hasPermission("uniquekits.admin")) {
+            MessageUtils.sendMessage(sender, plugin.getLanguageManager().getMessage("general.no-permission"));
+            return;
+        }
+        
+        KitStatsManager statsManager = plugin.getKitStatsManager();
+        long now = System.currentTimeMillis();
+        
+        MessageUtils.sendMessages(sender, plugin.getLanguageManager().getMessageList("stats.header"));
+        for (String line : plugin.getLanguageManager().getMessageList("stats.server")) {
+            MessageUtils.sendMessage(sender, line
+                .replace("{total}", String.valueOf(statsManager.getTotalClaims()))
+                .replace("{hour}", String.valueOf(statsManager.getClaimsLastHour()))
+                .replace("{day}", String.valueOf(statsManager.getClaimsLastDay())));
+        }
+        
+        List<KitUsageStats> mostClaimed = statsManager.getMostClaimed(10);
+        if (mostClaimed.isEmpty()) {
+            MessageUtils.sendMessage(sender, plugin.getLanguageManager().getMessage("stats.no-claims"));
+        }
+        for (KitUsageStats stats : mostClaimed) {
+            MessageUtils.sendMessage(sender, plugin.getLanguageManager().getMessage("stats.kit-item",
+                "{kit}", stats.getKitId(),
+                "{total}", stats.getTotalClaims(),
+                "{hour}", stats.getClaimsLastHour(now),
+                "{day}", stats.getClaimsLastDay(now)));
+        }
+        MessageUtils.sendMessages(sender, plugin.getLanguageManager().getMessageList("stats.footer"));
+    }
+    
     private void showVersion(CommandSender sender) {
         MessageUtils.sendMessage(sender, "");
         MessageUtils.sendMessage(sender, "<gradient:#FFD700:#FFA500>✦ UniqueKits</gradient> <gray>v" + plugin.getDescription().getVersion() + "</gray>");
         MessageUtils.sendMessage(sender, "<gray>Created by: <yellow>Turjo</yellow></gray>");
         MessageUtils.sendMessage(sender, "<gray>Hooks Active: <green>" + plugin.getHookManager().getEnabledHooksCount() + "</green></gray>");
         MessageUtils.sendMessage(sender, "<gray>Total Kits: <yellow>" + plugin.getKitManager().getAllKits().size() + "</yellow></gray>");
+        MessageUtils.sendMessage(sender, "<gray>Data Preloads: <green>" + plugin.getPlayerDataManager().getPreloadHits() + "</green> hits, <red>"
+            + plugin.getPlayerDataManager().getSyncLoads() + "</red> sync loads, <yellow>" + plugin.getPlayerDataManager().getPreloadExpired() + "</yellow> expired</gray>");
+        MessageUtils.sendMessage(sender, "<gray>Auto-save: <yellow>" + plugin.getPlayerDataManager().getAutoSaveScheduler().getQueueDepth() + "</yellow> queued, last cycle <green>"
+            + plugin.getPlayerDataManager().getAutoSaveScheduler().getLastCycleSaves() + "</green> saves, worst slice <yellow>"
+            + plugin.getPlayerDataManager().getAutoSaveScheduler().getWorstSliceMillis() + "ms</yellow> (<yellow>"
+            + plugin.getPlayerDataManager().getAutoSaveScheduler().getWorstSnapshotMicros() + "µs</yellow> on main thread)</gray>");
+        MessageUtils.sendMessage(sender, "<gray>Offline Cache: <yellow>" + plugin.getPlayerDataManager().getOfflineCache().size() + "</yellow> players, <yellow>"
+            + plugin.getPlayerDataManager().getOfflineCache().getMissingSize() + "</yellow> missing, <green>" + plugin.getPlayerDataManager().getOfflineCache().getHits() + "</green> hits, <red>"
+            + plugin.getPlayerDataManager().getOfflineCache().getMisses() + "</red> misses</gray>");
+        MessageUtils.sendMessage(sender, "<gray>Cooldown Timers: <yellow>" + plugin.getCooldownNotifier().getPending() + "</yellow> pending, <green>"
+            + plugin.getCooldownNotifier().getNotified() + "</green> expired, <yellow>" + plugin.getCooldownNotifier().getStale() + "</yellow> stale</gray>");
+        MessageUtils.sendMessage(sender, "<gray>Available Kits Cache: <yellow>" + plugin.getKitManager().getAvailableKitCache().size() + "</yellow> players, <green>"
+            + plugin.getKitManager().getAvailableKitCache().getHits() + "</green> hits, <red>"
+            + plugin.getKitManager().getAvailableKitCache().getMisses() + "</red> misses</gray>");
+        MessageUtils.sendMessage(sender, "<gray>Claim Particles: <green>" + plugin.getKitManager().getClaimParticles().getSpawned() + "</green> spawned, <yellow>"
+            + plugin.getKitManager().getClaimParticles().getQueued() + "</yellow> queued, <red>"
+            + plugin.getKitManager().getClaimParticles().getDropped() + "</red> dropped</gray>");
+        sendItemImportStats(sender, plugin.getKitManager().getItemImportStats());
         MessageUtils.sendMessage(sender, "");
     }
     
+    private void sendItemImportStats(CommandSender sender, List<ItemImportStats> fileStats) {
+        long[] totals = new long[ItemBuilder.Schema.values().length];
+        List<ItemImportStats> problems = new ArrayList<>();
+        for (ItemImportStats stats : fileStats) {
+            for (ItemBuilder.Schema schema : ItemBuilder.Schema.values()) {
+                totals[schema.ordinal()] += stats.get(schema);
+            }
+            if (stats.hasProblems()) {
+                problems.add(stats);
+            }
+        }
+        
+        MessageUtils.sendMessage(sender, "<gray>Kit Items (" + fileStats.size() + " files): <green>"
+            + totals[ItemBuilder.Schema.SERIALIZED.ordinal()] + "</green> serialized, <yellow>"
+            + totals[ItemBuilder.Schema.LEGACY.ordinal()] + "</yellow> legacy, <yellow>"
+            + totals[ItemBuilder.Schema.HAND_WRITTEN.ordinal()] + "</yellow> hand-written, <red>"
+            + totals[ItemBuilder.Schema.INVALID.ordinal()] + "</red> invalid</gray>");
+        
+        // Point at the files to fix
+        int shown = Math.min(problems.size(), 5);
+        for (int i = 0; i < shown; i++) {
+            ItemImportStats stats = problems.get(i);
+            MessageUtils.sendMessage(sender, "<gray>  " + stats.getSource() + ": <yellow>"
+                + stats.get(ItemBuilder.Schema.LEGACY) + "</yellow> legacy, <red>"
+                + stats.get(ItemBuilder.Schema.INVALID) + "</red> invalid</gray>");
+        }
+        if (problems.size() > shown) {
+            MessageUtils.sendMessage(sender, "<gray>  ...and " + (problems.size() - shown) + " more files</gray>");
+        }
+    }
+    
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
         
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("help", "list", "create", "edit", "delete", "give", "import", "export", "reload", "stats", "version");
+            List<String> subCommands = Arrays.asList("help", "list", "create", "edit", "delete", "give", "import", "export", "reload", "migrate", "stats", "version");
             return subCommands.stream()
                 .filter(sub -> sub.toLowerCase().startsWith(args[0].toLowerCase()))
                 .collect(Collectors.toList());
@@ -375,8 +498,14 @@ public class UniqueKitsCommand implements CommandExecutor, TabCompleter {
                     return plugin.getKitManager().getKitNames().stream()
                         .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
                         .collect(Collectors.toList());
-                case "give":
                 case "stats":
+                    List<String> targets = new ArrayList<>();
+                    targets.add("kits");
+                    Bukkit.getOnlinePlayers().forEach(online -> targets.add(online.getName()));
+                    return targets.stream()
+                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+                case "give":
                     return Bukkit.getOnlinePlayers().stream()
                         .map(Player::getName)
                         .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
@@ -2,7 +2,9 @@ package com.turjo.uniquekits.gui;
 
 import com.turjo.uniquekits.UniqueKits;
 import com.turjo.uniquekits.utils.MessageUtils;
+import com.turjo.uniquekits.utils.NameLookup;
 import org.bukkit.Bukkit;
+import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
@@ -37,11 +39,8 @@ public abstract class BaseGui {
     }
     
     protected void playSound(String sound) {
-        try {
-            player.playSound(player.getLocation(), org.bukkit.Sound.valueOf(sound), 1.0f, 1.0f);
-        } catch (Exception e) {
-            // Fallback sound
-            player.playSound(player.getLocation(), org.bukkit.Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
-        }
+        // Cached lookup; unknown names fall back to the click sound
+        Sound resolved = NameLookup.sound(sound);
+        player.playSound(player.getLocation(), resolved != null ? resolved : Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
     }
 }
\ No newline at end of file
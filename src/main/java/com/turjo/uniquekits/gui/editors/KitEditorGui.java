@@ -256,6 +256,7 @@ public class KitEditorGui extends BaseGui {
         // Add a sample command to the kit
         String sampleCommand = "tell {player} You received the " + kit.getName() + " kit!";
         kit.getCommands().add(sampleCommand);
+        kit.compile();
         MessageUtils.sendMessage(player, plugin.getLanguageManager().getMessage("editor.command-added", 
             "{command}", sampleCommand));
         hasChanges = true;
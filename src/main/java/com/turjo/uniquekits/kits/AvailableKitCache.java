@@ -0,0 +1,94 @@
+package com.turjo.uniquekits.kits;
+
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-player cache of the sorted kits a player can use. Entries are dropped on world and
+ * level changes, all of them at once when the kit registry changes, and expire after a short
+ * TTL so permission and balance changes, which raise no event, are picked up too.
+ */
+public class AvailableKitCache {
+    
+    private final boolean enabled;
+    private final long expireAfterMillis;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Bumped on every registry change, older entries are ignored
+    private final AtomicLong generation = new AtomicLong();
+    
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    public AvailableKitCache(boolean enabled, long expireAfterMillis) {
+        this.enabled = enabled;
+        this.expireAfterMillis = expireAfterMillis;
+    }
+    
+    /**
+     * The cached list of {@code player}, computed with {@code loader} when missing or stale
+     */
+    public List<Kit> get(Player player, Function<Player, List<Kit>> loader) {
+        if (!enabled) {
+            return loader.apply(player);
+        }
+        
+        long now = System.currentTimeMillis();
+        long currentGeneration = generation.get();
+        Entry entry = entries.get(player.getUniqueId());
+        
+        if (entry != null && entry.generation == currentGeneration && entry.expiresAt > now) {
+            hits.incrementAndGet();
+            return entry.kits;
+        }
+        
+        misses.incrementAndGet();
+        List<Kit> kits = loader.apply(player);
+        entries.put(player.getUniqueId(), new Entry(kits, currentGeneration, now + expireAfterMillis));
+        return kits;
+    }
+    
+    public void invalidate(UUID playerId) {
+        entries.remove(playerId);
+    }
+    
+    /**
+     * Drop every entry, used when kits are added, edited, deleted or reloaded
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+    
+    // Statistics
+    public int size() {
+        return entries.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+    
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    private static final class Entry {
+        private final List<Kit> kits;
+        private final long generation;
+        private final long expiresAt;
+        
+        private Entry(List<Kit> kits, long generation, long expiresAt) {
+            this.kits = kits;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
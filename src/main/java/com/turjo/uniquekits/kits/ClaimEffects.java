@@ -0,0 +1,68 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.utils.NameLookup;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+
+/**
+ * The sound and particle of a kit claim, resolved from the kit's names once per compile.
+ * Invalid names are reported when resolved and then ignored.
+ */
+public final class ClaimEffects {
+    
+    private final Sound sound;
+    private final Particle particle;
+    
+    private ClaimEffects(Sound sound, Particle particle) {
+        this.sound = sound;
+        this.particle = particle;
+    }
+    
+    public static ClaimEffects compile(Kit kit) {
+        Sound sound = null;
+        if (kit.getSound() != null && !kit.getSound().isEmpty()) {
+            sound = NameLookup.sound(kit.getSound());
+            if (sound == null) {
+                UniqueKits.getInstance().getLogger().warning("Invalid sound for kit " + kit.getId() + ": " + kit.getSound());
+            }
+        }
+        
+        Particle particle = null;
+        if (kit.getParticle() != null && !kit.getParticle().isEmpty()) {
+            particle = resolveParticle(kit.getParticle(), "kit " + kit.getId());
+        }
+        
+        return new ClaimEffects(sound, particle);
+    }
+    
+    /**
+     * A particle that can be spawned without extra data, or null after a warning
+     */
+    static Particle resolveParticle(String name, String owner) {
+        Particle particle = NameLookup.particle(name);
+        if (particle == null) {
+            UniqueKits.getInstance().getLogger().warning("Invalid particle for " + owner + ": " + name);
+            return null;
+        }
+        if (particle.getDataType() != Void.class) {
+            UniqueKits.getInstance().getLogger().warning("Particle " + name + " for " + owner + " needs extra data and cannot be used");
+            return null;
+        }
+        return particle;
+    }
+    
+    /**
+     * The claim sound, null for none
+     */
+    public Sound getSound() {
+        return sound;
+    }
+    
+    /**
+     * The kit's own claim particle, null to use the default one
+     */
+    public Particle getParticle() {
+        return particle;
+    }
+}
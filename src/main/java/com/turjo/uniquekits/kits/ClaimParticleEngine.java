@@ -0,0 +1,126 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Spawns claim particles within a per-tick budget. A claim queues one burst and a task spawns at
+ * most {@code particles.max-per-tick} bursts each tick, so many claims at once are spread over the
+ * following ticks instead of flooding clients with packets. Bursts beyond {@code particles.max-queued}
+ * are dropped, they are only cosmetic. Main thread only.
+ */
+public class ClaimParticleEngine {
+    
+    private final UniqueKits plugin;
+    private final Deque<Burst> queue = new ArrayDeque<>();
+    private BukkitTask task;
+    
+    // Settings, read again on reload
+    private boolean enabled;
+    private Particle defaultParticle;
+    private int count;
+    private double offset;
+    private int maxPerTick;
+    private int maxQueued;
+    
+    // Statistics
+    private long spawned;
+    private long dropped;
+    
+    public ClaimParticleEngine(UniqueKits plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    public void reload() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("particles.enabled", true);
+        count = Math.max(1, config.getInt("particles.count", 10));
+        offset = config.getDouble("particles.offset", 0.5);
+        maxPerTick = Math.max(1, config.getInt("particles.max-per-tick", 10));
+        maxQueued = Math.max(maxPerTick, config.getInt("particles.max-queued", 200));
+        
+        String defaultName = config.getString("particles.default", "");
+        defaultParticle = defaultName.isEmpty() ? null : ClaimEffects.resolveParticle(defaultName, "particles.default");
+    }
+    
+    /**
+     * Queue the claim burst for {@code player}; {@code particle} null uses the default particle
+     */
+    public void play(Player player, Particle particle) {
+        Particle effective = particle != null ? particle : defaultParticle;
+        if (!enabled || effective == null) {
+            return;
+        }
+        
+        if (queue.size() >= maxQueued) {
+            dropped++;
+            return;
+        }
+        
+        queue.add(new Burst(player, effective));
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+    
+    private void tick() {
+        int budget = maxPerTick;
+        while (budget > 0 && !queue.isEmpty()) {
+            Burst burst = queue.poll();
+            if (!burst.player.isOnline()) {
+                continue;
+            }
+            
+            Location location = burst.player.getLocation().add(0, 1, 0);
+            location.getWorld().spawnParticle(burst.particle, location, count, offset, offset, offset, 0);
+            spawned++;
+            budget--;
+        }
+        
+        // Idle without claims
+        if (queue.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+    }
+    
+    // Statistics
+    public int getQueued() {
+        return queue.size();
+    }
+    
+    public long getSpawned() {
+        return spawned;
+    }
+    
+    public long getDropped() {
+        return dropped;
+    }
+    
+    private static final class Burst {
+        private final Player player;
+        private final Particle particle;
+        
+        private Burst(Player player, Particle particle) {
+            this.player = player;
+            this.particle = particle;
+        }
+    }
+}
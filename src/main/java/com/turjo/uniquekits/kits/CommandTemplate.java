@@ -0,0 +1,214 @@
+package com.turjo.uniquekits.kits;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandException;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A kit reward command compiled once when the kit is loaded: the [CONSOLE]/[PLAYER] prefix
+ * resolved to an executor, the line split into arguments, and each argument split into literal
+ * and placeholder parts. Plugin commands are looked up once and executed directly; anything
+ * else (vanilla commands) goes through {@code dispatchCommand}.
+ */
+public final class CommandTemplate {
+    
+    public enum Executor {
+        CONSOLE,
+        PLAYER
+    }
+    
+    private enum Placeholder {
+        PLAYER("{player}"),
+        UUID("{uuid}"),
+        WORLD("{world}");
+        
+        private final String token;
+        
+        Placeholder(String token) {
+            this.token = token;
+        }
+    }
+    
+    private final String raw;
+    private final Executor executor;
+    private final Argument label;
+    private final Argument[] arguments;
+    
+    // Resolved on first use, plugins loading after us register their commands later
+    private volatile boolean resolved;
+    private volatile PluginCommand target;
+    
+    private CommandTemplate(String raw, Executor executor, Argument label, Argument[] arguments) {
+        this.raw = raw;
+        this.executor = executor;
+        this.label = label;
+        this.arguments = arguments;
+    }
+    
+    public static CommandTemplate compile(String command) {
+        Executor executor = Executor.CONSOLE;
+        String line = command;
+        if (line.startsWith("[CONSOLE]")) {
+            line = line.substring("[CONSOLE]".length());
+        } else if (line.startsWith("[PLAYER]")) {
+            executor = Executor.PLAYER;
+            line = line.substring("[PLAYER]".length());
+        }
+        
+        line = line.trim();
+        if (line.startsWith("/")) {
+            line = line.substring(1);
+        }
+        
+        // Same splitting as the server's command map
+        String[] tokens = line.split(" ");
+        Argument[] arguments = new Argument[Math.max(0, tokens.length - 1)];
+        for (int i = 1; i < tokens.length; i++) {
+            arguments[i - 1] = Argument.compile(tokens[i]);
+        }
+        
+        return new CommandTemplate(command, executor, Argument.compile(tokens[0]), arguments);
+    }
+    
+    public static List<CommandTemplate> compileAll(List<String> commands) {
+        if (commands == null || commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<CommandTemplate> templates = new ArrayList<>(commands.size());
+        for (String command : commands) {
+            if (command != null && !command.trim().isEmpty()) {
+                templates.add(compile(command));
+            }
+        }
+        return Collections.unmodifiableList(templates);
+    }
+    
+    /**
+     * Run the command for {@code player} as the configured executor
+     */
+    public void execute(Player player) {
+        CommandSender sender = executor == Executor.PLAYER ? player : Bukkit.getConsoleSender();
+        String commandLabel = label.render(player);
+        String[] args = new String[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            args[i] = arguments[i].render(player);
+        }
+        
+        PluginCommand command = label.isLiteral() ? resolve() : null;
+        if (command == null) {
+            Bukkit.dispatchCommand(sender, args.length == 0 ? commandLabel : commandLabel + " " + String.join(" ", args));
+            return;
+        }
+        
+        try {
+            command.execute(sender, commandLabel, args);
+        } catch (CommandException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CommandException("Unhandled exception executing kit command '" + raw + "' in plugin "
+                + command.getPlugin().getDescription().getFullName(), e);
+        }
+    }
+    
+    public String getRaw() {
+        return raw;
+    }
+    
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    private PluginCommand resolve() {
+        if (!resolved) {
+            target = Bukkit.getPluginCommand(label.literal);
+            resolved = true;
+        }
+        
+        // A disabled or unregistered command goes back through the command map
+        PluginCommand command = target;
+        if (command == null || !command.isRegistered() || !command.getPlugin().isEnabled()) {
+            return null;
+        }
+        return command;
+    }
+    
+    /**
+     * One space-separated word of the command, as literal text and placeholders
+     */
+    private static final class Argument {
+        private final String literal;
+        private final String[] literals;
+        private final Placeholder[] placeholders;
+        
+        private Argument(String literal, String[] literals, Placeholder[] placeholders) {
+            this.literal = literal;
+            this.literals = literals;
+            this.placeholders = placeholders;
+        }
+        
+        static Argument compile(String token) {
+            List<String> literals = new ArrayList<>();
+            List<Placeholder> placeholders = new ArrayList<>();
+            int start = 0;
+            
+            while (true) {
+                int next = -1;
+                Placeholder found = null;
+                for (Placeholder placeholder : Placeholder.values()) {
+                    int index = token.indexOf(placeholder.token, start);
+                    if (index >= 0 && (next < 0 || index < next)) {
+                        next = index;
+                        found = placeholder;
+                    }
+                }
+                
+                if (found == null) {
+                    literals.add(token.substring(start));
+                    break;
+                }
+                literals.add(token.substring(start, next));
+                placeholders.add(found);
+                start = next + found.token.length();
+            }
+            
+            if (placeholders.isEmpty()) {
+                return new Argument(token, null, null);
+            }
+            return new Argument(null, literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+        }
+        
+        boolean isLiteral() {
+            return literal != null;
+        }
+        
+        String render(Player player) {
+            if (literal != null) {
+                return literal;
+            }
+            
+            StringBuilder builder = new StringBuilder(32);
+            for (int i = 0; i < placeholders.length; i++) {
+                builder.append(literals[i]);
+                switch (placeholders[i]) {
+                    case PLAYER:
+                        builder.append(player.getName());
+                        break;
+                    case UUID:
+                        builder.append(player.getUniqueId());
+                        break;
+                    case WORLD:
+                        builder.append(player.getWorld().getName());
+                        break;
+                }
+            }
+            return builder.append(literals[placeholders.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.storage.PlayerData;
+import com.turjo.uniquekits.utils.MessageUtils;
+import com.turjo.uniquekits.utils.TimingWheel;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells online players the moment one of their kits comes off cooldown, and drops the
+ * expired cooldown from their data. Cooldown changes feed a {@link TimingWheel} that is
+ * advanced once per tick, so the cost does not grow with the number of players or kits.
+ */
+public class CooldownNotifier {
+    
+    private final UniqueKits plugin;
+    private final TimingWheel<Expiry> wheel;
+    
+    // Cooldown changes can come from any thread, the wheel is only touched on the main thread
+    private final ConcurrentLinkedQueue<Expiry> incoming = new ConcurrentLinkedQueue<>();
+    private BukkitTask task;
+    
+    // Statistics
+    private final AtomicLong notified = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    
+    public CooldownNotifier(UniqueKits plugin) {
+        this.plugin = plugin;
+        this.wheel = new TimingWheel<>(50, System.currentTimeMillis());
+    }
+    
+    public void start() {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    /**
+     * Watch a cooldown that ends at {@code expireTime}. Changed or cleared cooldowns
+     * need no cancelling; the stale entry is recognised and skipped when it fires.
+     */
+    public void schedule(UUID playerId, String kitId, long expireTime) {
+        if (expireTime > System.currentTimeMillis()) {
+            incoming.add(new Expiry(playerId, kitId, expireTime));
+        }
+    }
+    
+    /**
+     * Watch every active cooldown of a player who just came online
+     */
+    public void scheduleAll(PlayerData data) {
+        for (Map.Entry<String, Long> entry : data.getAllKitCooldowns().entrySet()) {
+            schedule(data.getPlayerId(), entry.getKey(), entry.getValue());
+        }
+    }
+    
+    private void tick() {
+        Expiry expiry;
+        while ((expiry = incoming.poll()) != null) {
+            wheel.schedule(expiry.expireTime, expiry);
+        }
+        
+        List<Expiry> expired = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), expired::add);
+        
+        for (Expiry entry : expired) {
+            fire(entry);
+        }
+    }
+    
+    private void fire(Expiry expiry) {
+        Player player = plugin.getServer().getPlayer(expiry.playerId);
+        if (player == null) {
+            stale.incrementAndGet();
+            return;
+        }
+        
+        PlayerData data = plugin.getPlayerDataManager().getPlayerData(expiry.playerId);
+        if (data.getKitCooldownExpireTime(expiry.kitId) != expiry.expireTime) {
+            // The cooldown was changed or cleared after this entry was scheduled
+            stale.incrementAndGet();
+            return;
+        }
+        
+        data.expireCooldown(expiry.kitId);
+        notified.incrementAndGet();
+        
+        if (!plugin.getConfigManager().getConfig().getBoolean("settings.cooldown-ready-notifications", true)) {
+            return;
+        }
+        
+        Kit kit = plugin.getKitManager().getKit(expiry.kitId);
+        if (kit == null || !kit.isEnabled()) {
+            return;
+        }
+        
+        for (String line : plugin.getLanguageManager().getMessageList("cooldown.expired")) {
+            MessageUtils.sendMessage(player, line.replace("{kit}", kit.getName()));
+        }
+    }
+    
+    // Statistics
+    public int getPending() {
+        return wheel.size() + incoming.size();
+    }
+    
+    public long getNotified() {
+        return notified.get();
+    }
+    
+    public long getStale() {
+        return stale.get();
+    }
+    
+    private static final class Expiry {
+        private final UUID playerId;
+        private final String kitId;
+        private final long expireTime;
+        
+        private Expiry(UUID playerId, String kitId, long expireTime) {
+            this.playerId = playerId;
+            this.kitId = kitId;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.turjo.uniquekits.kits;
 
 import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.kits.requirements.RequirementChain;
+import com.turjo.uniquekits.kits.requirements.RequirementRegistry;
 import com.turjo.uniquekits.utils.ItemBuilder;
+import com.turjo.uniquekits.utils.ItemImportStats;
 import com.turjo.uniquekits.utils.MessageUtils;
+import com.turjo.uniquekits.utils.NameLookup;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
@@ -21,7 +25,10 @@ public class Kit {
     private Material icon;
     private int iconData;
     private String iconCustomModelData;
-    private List<ItemStack> items;
+    // Items stay as raw config maps until a preview or claim first needs them
+    private volatile List<ItemStack> items;
+    private List<Map<?, ?>> rawItems;
+    private ItemImportStats itemImportStats;
     private List<String> commands;
     private List<PotionEffect> effects;
     private long cooldown;
@@ -39,6 +46,12 @@ public class Kit {
     private int priority;
     private boolean enabled;
     
+    // Precompiled forms, rebuilt by compile() whenever the kit is loaded or saved
+    private volatile KitDeliveryPlan deliveryPlan;
+    private volatile List<CommandTemplate> commandTemplates;
+    private volatile RequirementChain requirementChain;
+    private volatile ClaimEffects claimEffects;
+    
     public Kit(String id) {
         this.id = id;
         this.name = id;
@@ -67,7 +80,15 @@ public class Kit {
     }
     
     public static Kit fromConfig(String id, ConfigurationSection section) {
+        return fromConfig(id, section, null);
+    }
+    
+    /**
+     * Read a kit, counting the schemas of its items in {@code itemImportStats} once they load
+     */
+    public static Kit fromConfig(String id, ConfigurationSection section, ItemImportStats itemImportStats) {
         Kit kit = new Kit(id);
+        kit.itemImportStats = itemImportStats;
         
         kit.name = MessageUtils.colorize(section.getString("name", id));
         kit.description = MessageUtils.colorize(section.getString("description", ""));
@@ -75,9 +96,8 @@ public class Kit {
         
         // Icon
         String iconString = section.getString("icon", "CHEST");
-        try {
-            kit.icon = Material.valueOf(iconString.toUpperCase());
-        } catch (IllegalArgumentException e) {
+        kit.icon = ItemBuilder.materialOf(iconString);
+        if (kit.icon == null) {
             kit.icon = Material.CHEST;
             UniqueKits.getInstance().getLogger().warning("Invalid icon material for kit " + id + ": " + iconString);
         }
@@ -85,15 +105,10 @@ public class Kit {
         kit.iconData = section.getInt("icon-data", 0);
         kit.iconCustomModelData = section.getString("icon-custom-model-data");
         
-        // Items
+        // Items, deserialized on first use
         if (section.contains("items")) {
-            List<Map<?, ?>> itemMaps = section.getMapList("items");
-            for (Map<?, ?> itemMap : itemMaps) {
-                ItemStack item = ItemBuilder.fromMap(itemMap);
-                if (item != null) {
-                    kit.items.add(item);
-                }
-            }
+            kit.rawItems = section.getMapList("items");
+            kit.items = null;
         }
         
         // Commands
@@ -103,7 +118,7 @@ public class Kit {
         if (section.contains("effects")) {
             List<Map<?, ?>> effectMaps = section.getMapList("effects");
             for (Map<?, ?> effectMap : effectMaps) {
-                PotionEffect effect = createPotionEffect(effectMap);
+                PotionEffect effect = createPotionEffect(id, effectMap);
                 if (effect != null) {
                     kit.effects.add(effect);
                 }
@@ -138,7 +153,7 @@ public class Kit {
         return kit;
     }
     
-    private static PotionEffect createPotionEffect(Map<?, ?> effectMap) {
+    private static PotionEffect createPotionEffect(String kitId, Map<?, ?> effectMap) {
         try {
             Object typeObj = effectMap.get("type");
             if (typeObj == null) return null;
@@ -192,10 +207,11 @@ public class Kit {
                 icon = Boolean.parseBoolean(iconObj.toString());
             }
             
-            PotionEffectType effectType = PotionEffectType.getByName(type.toUpperCase());
+            PotionEffectType effectType = NameLookup.potionEffectType(type);
             if (effectType != null) {
                 return new PotionEffect(effectType, duration, amplifier, ambient, particles, icon);
             }
+            UniqueKits.getInstance().getLogger().warning("Invalid potion effect for kit " + kitId + ": " + type);
         } catch (Exception e) {
             UniqueKits.getInstance().getLogger().warning("Invalid potion effect configuration: " + e.getMessage());
         }
@@ -212,12 +228,17 @@ public class Kit {
             section.set("icon-custom-model-data", iconCustomModelData);
         }
         
-        // Save items
-        List<Map<String, Object>> itemMaps = new ArrayList<>();
-        for (ItemStack item : items) {
-            itemMaps.add(item.serialize());
+        // Save items, or the raw maps if they were never needed
+        List<ItemStack> loadedItems = items;
+        if (loadedItems != null) {
+            List<Map<String, Object>> itemMaps = new ArrayList<>();
+            for (ItemStack item : loadedItems) {
+                itemMaps.add(item.serialize());
+            }
+            section.set("items", itemMaps);
+        } else {
+            section.set("items", rawItems);
         }
-        section.set("items", itemMaps);
         
         // Save commands
         section.set("commands", commands);
@@ -261,92 +282,82 @@ public class Kit {
     }
     
     public boolean canUse(Player player) {
-        // Check if kit is enabled
         if (!enabled) {
             return false;
         }
         
-        // Check permission
-        if (!permission.isEmpty() && !player.hasPermission(permission) && !player.hasPermission("uniquekits.bypass.permission")) {
-            return false;
-        }
-        
-        // Check world restrictions
-        String worldName = player.getWorld().getName();
-        if (!allowedWorlds.isEmpty() && !allowedWorlds.contains(worldName) && !player.hasPermission("uniquekits.bypass.world")) {
-            return false;
+        // World, permission and requirement checks, compiled cheapest first
+        return getRequirementChain().test(player);
+    }
+    
+    /**
+     * Rebuild the precompiled forms from the current settings
+     */
+    public void compile() {
+        // The delivery plan needs the items, it is built on first claim if they are not loaded yet
+        deliveryPlan = items != null ? KitDeliveryPlan.compile(items) : null;
+        commandTemplates = CommandTemplate.compileAll(commands);
+        requirementChain = RequirementRegistry.compile(this);
+        claimEffects = ClaimEffects.compile(this);
+    }
+    
+    public KitDeliveryPlan getDeliveryPlan() {
+        KitDeliveryPlan plan = deliveryPlan;
+        if (plan == null) {
+            plan = KitDeliveryPlan.compile(getItems());
+            deliveryPlan = plan;
         }
-        if (!blockedWorlds.isEmpty() && blockedWorlds.contains(worldName) && !player.hasPermission("uniquekits.bypass.world")) {
-            return false;
+        return plan;
+    }
+    
+    public RequirementChain getRequirementChain() {
+        RequirementChain chain = requirementChain;
+        if (chain == null) {
+            chain = RequirementRegistry.compile(this);
+            requirementChain = chain;
         }
-        
-        // Check requirements
-        return checkRequirements(player);
+        return chain;
     }
     
-    private boolean checkRequirements(Player player) {
-        for (Map.Entry<String, Object> entry : requirements.entrySet()) {
-            String requirement = entry.getKey().toLowerCase();
-            Object value = entry.getValue();
-            
-            switch (requirement) {
-                case "level":
-                    int requiredLevel = 0;
-                    if (value instanceof Number) {
-                        requiredLevel = ((Number) value).intValue();
-                    } else if (value != null) {
-                        try {
-                            requiredLevel = Integer.parseInt(value.toString());
-                        } catch (NumberFormatException ignored) {
-                            continue;
-                        }
-                    }
-                    if (player.getLevel() < requiredLevel) {
-                        return false;
-                    }
-                    break;
-                case "exp":
-                    int requiredExp = 0;
-                    if (value instanceof Number) {
-                        requiredExp = ((Number) value).intValue();
-                    } else if (value != null) {
-                        try {
-                            requiredExp = Integer.parseInt(value.toString());
-                        } catch (NumberFormatException ignored) {
-                            continue;
-                        }
-                    }
-                    if (player.getTotalExperience() < requiredExp) {
-                        return false;
-                    }
-                    break;
-                case "money":
-                    if (UniqueKits.getInstance().getHookManager().getEconomy() != null) {
-                        double balance = UniqueKits.getInstance().getHookManager().getEconomy().getBalance(player);
-                        double requiredMoney = 0.0;
-                        if (value instanceof Number) {
-                            requiredMoney = ((Number) value).doubleValue();
-                        } else if (value != null) {
-                            try {
-                                requiredMoney = Double.parseDouble(value.toString());
-                            } catch (NumberFormatException ignored) {
-                                continue;
-                            }
-                        }
-                        if (balance < requiredMoney) {
-                            return false;
+    /**
+     * The kit's items, deserialized from the raw config maps on first call
+     */
+    public List<ItemStack> getItems() {
+        List<ItemStack> loaded = items;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = items;
+                if (loaded == null) {
+                    loaded = new ArrayList<>();
+                    for (Map<?, ?> itemMap : rawItems) {
+                        ItemStack item = ItemBuilder.fromMap(itemMap, itemImportStats);
+                        if (item != null) {
+                            loaded.add(item);
                         }
                     }
-                    break;
-                case "permission":
-                    if (!player.hasPermission(value.toString())) {
-                        return false;
-                    }
-                    break;
-                // Add more requirements as needed
+                    items = loaded;
+                }
             }
         }
-        return true;
+        return loaded;
+    }
+    
+    public ClaimEffects getClaimEffects() {
+        ClaimEffects effects = claimEffects;
+        if (effects == null) {
+            effects = ClaimEffects.compile(this);
+            claimEffects = effects;
+        }
+        return effects;
+    }
+    
+    public List<CommandTemplate> getCommandTemplates() {
+        List<CommandTemplate> templates = commandTemplates;
+        if (templates == null) {
+            templates = CommandTemplate.compileAll(commands);
+            commandTemplates = templates;
+        }
+        return templates;
     }
     
     public ItemStack getIcon() {
@@ -381,10 +392,10 @@ public class Kit {
     public void setIconData(int iconData) { this.iconData = iconData; }
     public String getIconCustomModelData() { return iconCustomModelData; }
     public void setIconCustomModelData(String iconCustomModelData) { this.iconCustomModelData = iconCustomModelData; }
-    public List<ItemStack> getItems() { return items; }
-    public void setItems(List<ItemStack> items) { this.items = items; }
+    public void setItems(List<ItemStack> items) { this.items = items; this.rawItems = null; this.deliveryPlan = null; }
+    public boolean isItemsLoaded() { return items != null; }
     public List<String> getCommands() { return commands; }
-    public void setCommands(List<String> commands) { this.commands = commands; }
+    public void setCommands(List<String> commands) { this.commands = commands; this.commandTemplates = null; }
     public List<PotionEffect> getEffects() { return effects; }
     public void setEffects(List<PotionEffect> effects) { this.effects = effects; }
     public long getCooldown() { return cooldown; }
@@ -392,7 +403,7 @@ public class Kit {
     public int getCost() { return cost; }
     public void setCost(int cost) { this.cost = cost; }
     public String getPermission() { return permission; }
-    public void setPermission(String permission) { this.permission = permission; }
+    public void setPermission(String permission) { this.permission = permission; this.requirementChain = null; }
     public boolean isOneTimeUse() { return oneTimeUse; }
     public void setOneTimeUse(boolean oneTimeUse) { this.oneTimeUse = oneTimeUse; }
     public boolean isAutoGiveOnJoin() { return autoGiveOnJoin; }
@@ -402,15 +413,15 @@ public class Kit {
     public boolean isFirstJoinKit() { return firstJoinKit; }
     public void setFirstJoinKit(boolean firstJoinKit) { this.firstJoinKit = firstJoinKit; }
     public List<String> getAllowedWorlds() { return allowedWorlds; }
-    public void setAllowedWorlds(List<String> allowedWorlds) { this.allowedWorlds = allowedWorlds; }
+    public void setAllowedWorlds(List<String> allowedWorlds) { this.allowedWorlds = allowedWorlds; this.requirementChain = null; }
     public List<String> getBlockedWorlds() { return blockedWorlds; }
-    public void setBlockedWorlds(List<String> blockedWorlds) { this.blockedWorlds = blockedWorlds; }
+    public void setBlockedWorlds(List<String> blockedWorlds) { this.blockedWorlds = blockedWorlds; this.requirementChain = null; }
     public Map<String, Object> getRequirements() { return requirements; }
-    public void setRequirements(Map<String, Object> requirements) { this.requirements = requirements; }
+    public void setRequirements(Map<String, Object> requirements) { this.requirements = requirements; this.requirementChain = null; }
     public String getSound() { return sound; }
-    public void setSound(String sound) { this.sound = sound; }
+    public void setSound(String sound) { this.sound = sound; this.claimEffects = null; }
     public String getParticle() { return particle; }
-    public void setParticle(String particle) { this.particle = particle; }
+    public void setParticle(String particle) { this.particle = particle; this.claimEffects = null; }
     public int getPriority() { return priority; }
     public void setPriority(int priority) { this.priority = priority; }
     public boolean isEnabled() { return enabled; }
@@ -0,0 +1,286 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the parsed kit files, keyed by a SHA-256 of their names and contents, the
+ * plugin version and the server version. When no kit file changed the trees are rebuilt from
+ * the snapshot instead of running the YAML parser. Items and other serializable objects are
+ * stored the way Bukkit serializes them ({@code ==} alias plus their serialized map), so they
+ * come back exactly as the YAML loader would have produced them.
+ *
+ * <pre>
+ * magic "UKKC", version byte, byte[32] hash
+ * value root                                       MAP of kit ID to the kit's file
+ * value := tag byte, payload
+ * </pre>
+ */
+final class KitCatalogSnapshot {
+    
+    private static final int MAGIC = 0x554B4B43; // "UKKC"
+    private static final byte VERSION = 2;
+    private static final int HASH_LENGTH = 32;
+    
+    // Value tags
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_SERIALIZABLE = 9;
+    
+    private final UniqueKits plugin;
+    private final File file;
+    
+    KitCatalogSnapshot(UniqueKits plugin, File file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+    
+    /**
+     * Hash of the kit files, given by kit ID, and everything else the parsed result depends on
+     */
+    byte[] hash(Map<String, byte[]> files) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((plugin.getDescription().getVersion() + '\0' + Bukkit.getBukkitVersion() + '\0')
+                .getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                // Length prefixes keep name and content boundaries unambiguous
+                byte[] name = file.getKey().getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(8).putInt(name.length).putInt(file.getValue().length).array());
+                digest.update(name);
+                digest.update(file.getValue());
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * The stored kits as sections of one configuration, or null when there is no snapshot for {@code hash}
+     */
+    ConfigurationSection read(byte[] hash) {
+        if (!file.exists()) {
+            return null;
+        }
+        
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                return null;
+            }
+            
+            byte[] storedHash = new byte[HASH_LENGTH];
+            in.readFully(storedHash);
+            if (!Arrays.equals(storedHash, hash)) {
+                return null;
+            }
+            
+            Object root = readValue(in);
+            if (!(root instanceof Map)) {
+                throw new IOException("Root is not a section");
+            }
+            
+            // Kit IDs are file names and may contain dots
+            MemoryConfiguration config = new MemoryConfiguration();
+            config.options().pathSeparator('\0');
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) root).entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    config.createSection(entry.getKey().toString(), (Map<?, ?>) entry.getValue());
+                } else {
+                    config.set(entry.getKey().toString(), entry.getValue());
+                }
+            }
+            return config;
+        } catch (IOException | RuntimeException e) {
+            // Also covers objects whose class no longer deserializes; a full parse replaces the file
+            plugin.getLogger().warning("§c[KitCatalogSnapshot] Ignoring unreadable kit snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Replace the snapshot with {@code kits}; failures only cost the next startup a full parse
+     */
+    synchronized void write(byte[] hash, Map<String, ? extends ConfigurationSection> kits) {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.write(hash);
+            writeValue(out, kits);
+            out.flush();
+            
+            Files.write(tempFile.toPath(), bytes.toByteArray());
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+            plugin.getLogger().warning("§c[KitCatalogSnapshot] Could not write kit snapshot: " + e.getMessage());
+        }
+    }
+    
+    // Value encoding
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TAG_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof ConfigurationSection) {
+            writeMap(out, ((ConfigurationSection) value).getValues(false));
+        } else if (value instanceof Map) {
+            writeMap(out, (Map<?, ?>) value);
+        } else if (value instanceof ConfigurationSerializable) {
+            out.writeByte(TAG_SERIALIZABLE);
+            writeString(out, ConfigurationSerialization.getAlias(((ConfigurationSerializable) value).getClass()));
+            writeMap(out, ((ConfigurationSerializable) value).serialize());
+        } else {
+            // Anything else (dates, big numbers) keeps the kits on the YAML path
+            throw new IOException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+    
+    private static void writeMap(DataOutputStream out, Map<?, ?> map) throws IOException {
+        out.writeByte(TAG_MAP);
+        out.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(out, String.valueOf(entry.getKey()));
+            writeValue(out, entry.getValue());
+        }
+    }
+    
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_LIST: {
+                int size = readCount(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case TAG_MAP:
+                return readMapBody(in);
+            case TAG_SERIALIZABLE: {
+                String alias = readString(in);
+                if (in.readByte() != TAG_MAP) {
+                    throw new IOException("Malformed serialized object " + alias);
+                }
+                Map<String, Object> serialized = readMapBody(in);
+                serialized.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+                Object object = ConfigurationSerialization.deserializeObject(serialized);
+                if (object == null) {
+                    throw new IOException("Could not deserialize " + alias);
+                }
+                return object;
+            }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+    
+    private static Map<String, Object> readMapBody(DataInputStream in) throws IOException {
+        int size = readCount(in);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readCount(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available()) {
+            throw new EOFException("Invalid length " + count);
+        }
+        return count;
+    }
+}
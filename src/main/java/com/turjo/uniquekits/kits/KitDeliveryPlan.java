@@ -0,0 +1,192 @@
+package com.turjo.uniquekits.kits;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precomputed form of a kit's items: identical stacks merged into one entry,
+ * prototypes cloned once, and entries indexed by material. Delivery reads the player's
+ * storage contents once and decides every placement and the overflow in a single pass,
+ * instead of one {@code addItem} inventory scan per item.
+ */
+public final class KitDeliveryPlan {
+    
+    static final KitDeliveryPlan EMPTY = new KitDeliveryPlan(new ItemStack[0], new int[0], Collections.emptyMap());
+    
+    private final ItemStack[] prototypes;
+    private final int[] amounts;
+    private final Map<Material, int[]> entriesByMaterial;
+    private final int requiredSlots;
+    private final int totalAmount;
+    
+    private KitDeliveryPlan(ItemStack[] prototypes, int[] amounts, Map<Material, int[]> entriesByMaterial) {
+        this.prototypes = prototypes;
+        this.amounts = amounts;
+        this.entriesByMaterial = entriesByMaterial;
+        
+        int slots = 0;
+        int total = 0;
+        for (int i = 0; i < prototypes.length; i++) {
+            int maxStack = Math.max(1, prototypes[i].getMaxStackSize());
+            slots += (amounts[i] + maxStack - 1) / maxStack;
+            total += amounts[i];
+        }
+        this.requiredSlots = slots;
+        this.totalAmount = total;
+    }
+    
+    public static KitDeliveryPlan compile(List<ItemStack> items) {
+        if (items == null || items.isEmpty()) {
+            return EMPTY;
+        }
+        
+        List<ItemStack> prototypes = new ArrayList<>();
+        List<Integer> amounts = new ArrayList<>();
+        
+        // Merge similar stacks, keeping the order of first appearance
+        for (ItemStack item : items) {
+            if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+                continue;
+            }
+            
+            int existing = -1;
+            for (int i = 0; i < prototypes.size(); i++) {
+                if (prototypes.get(i).isSimilar(item)) {
+                    existing = i;
+                    break;
+                }
+            }
+            
+            if (existing >= 0) {
+                amounts.set(existing, amounts.get(existing) + item.getAmount());
+            } else {
+                ItemStack prototype = item.clone();
+                prototype.setAmount(1);
+                prototypes.add(prototype);
+                amounts.add(item.getAmount());
+            }
+        }
+        
+        Map<Material, List<Integer>> grouped = new EnumMap<>(Material.class);
+        for (int i = 0; i < prototypes.size(); i++) {
+            grouped.computeIfAbsent(prototypes.get(i).getType(), type -> new ArrayList<>()).add(i);
+        }
+        
+        Map<Material, int[]> entriesByMaterial = new EnumMap<>(Material.class);
+        for (Map.Entry<Material, List<Integer>> entry : grouped.entrySet()) {
+            entriesByMaterial.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        
+        return new KitDeliveryPlan(prototypes.toArray(new ItemStack[0]),
+            amounts.stream().mapToInt(Integer::intValue).toArray(), entriesByMaterial);
+    }
+    
+    /**
+     * Put the kit's items in the player's storage slots, topping up matching stacks before
+     * using empty slots like {@code addItem} does, and return what did not fit
+     */
+    public List<ItemStack> deliver(Player player) {
+        if (prototypes.length == 0) {
+            return Collections.emptyList();
+        }
+        
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] contents = inventory.getStorageContents();
+        int inventoryLimit = inventory.getMaxStackSize();
+        int[] remaining = amounts.clone();
+        int[] emptySlots = new int[contents.length];
+        int emptyCount = 0;
+        
+        // Single scan: top up partial stacks and remember empty slots
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack == null || stack.getType() == Material.AIR) {
+                emptySlots[emptyCount++] = slot;
+                continue;
+            }
+            
+            int[] candidates = entriesByMaterial.get(stack.getType());
+            if (candidates == null) {
+                continue;
+            }
+            
+            for (int entry : candidates) {
+                if (remaining[entry] == 0 || !prototypes[entry].isSimilar(stack)) {
+                    continue;
+                }
+                
+                int space = limit(entry, inventoryLimit) - stack.getAmount();
+                if (space > 0) {
+                    int added = Math.min(space, remaining[entry]);
+                    stack.setAmount(stack.getAmount() + added);
+                    inventory.setItem(slot, stack);
+                    remaining[entry] -= added;
+                }
+                break;
+            }
+        }
+        
+        // Fill empty slots in kit order
+        int nextEmpty = 0;
+        for (int entry = 0; entry < prototypes.length && nextEmpty < emptyCount; entry++) {
+            int limit = limit(entry, inventoryLimit);
+            while (remaining[entry] > 0 && nextEmpty < emptyCount) {
+                int placed = Math.min(limit, remaining[entry]);
+                inventory.setItem(emptySlots[nextEmpty++], stackOf(entry, placed));
+                remaining[entry] -= placed;
+            }
+        }
+        
+        List<ItemStack> overflow = null;
+        for (int entry = 0; entry < prototypes.length; entry++) {
+            int maxStack = Math.max(1, prototypes[entry].getMaxStackSize());
+            while (remaining[entry] > 0) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                int amount = Math.min(maxStack, remaining[entry]);
+                overflow.add(stackOf(entry, amount));
+                remaining[entry] -= amount;
+            }
+        }
+        
+        return overflow != null ? overflow : Collections.emptyList();
+    }
+    
+    /**
+     * Number of empty slots the kit needs in an empty inventory
+     */
+    public int getRequiredSlots() {
+        return requiredSlots;
+    }
+    
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public int getEntryCount() {
+        return prototypes.length;
+    }
+    
+    public boolean isEmpty() {
+        return prototypes.length == 0;
+    }
+    
+    private int limit(int entry, int inventoryLimit) {
+        return Math.max(1, Math.min(prototypes[entry].getMaxStackSize(), inventoryLimit));
+    }
+    
+    private ItemStack stackOf(int entry, int amount) {
+        ItemStack stack = prototypes[entry].clone();
+        stack.setAmount(amount);
+        return stack;
+    }
+}
@@ -0,0 +1,254 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One YAML file per kit in the kits folder. Saves and deletes are queued per kit, so a burst of
+ * edits writes each kit once, and written on an I/O thread once no kit changed for the save delay,
+ * through a temp file renamed over the old one.
+ */
+class KitFileStore {
+    
+    static final String EXTENSION = ".yml";
+    
+    private final UniqueKits plugin;
+    private final File directory;
+    private final long saveDelayMillis;
+    private final long maxDelayMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    
+    // Kit ID to file contents, null to delete; guarded by itself
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private long firstPendingAt;
+    private long lastPendingAt;
+    private ScheduledFuture<?> flushTask;
+    
+    // Serializes flushes, so the I/O thread and a reload never write the same file at once
+    private final Object writeLock = new Object();
+    
+    // File name to its last modified time after our own write, or DELETED
+    private final Map<String, Long> selfWritten = new ConcurrentHashMap<>();
+    private static final long DELETED = -1L;
+    
+    KitFileStore(UniqueKits plugin, File directory, long saveDelayMillis) {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.saveDelayMillis = Math.max(0, saveDelayMillis);
+        // A steady stream of edits still reaches the disk
+        this.maxDelayMillis = Math.max(5000, this.saveDelayMillis * 10);
+        
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "UniqueKits-KitWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    
+    File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Whether {@code kitId} can be used as a file name
+     */
+    static boolean isValidId(String kitId) {
+        return !kitId.isEmpty() && !kitId.startsWith(".") && kitId.indexOf('/') < 0 && kitId.indexOf('\\') < 0;
+    }
+    
+    /**
+     * Contents of every kit file by kit ID, in file name order
+     */
+    Map<String, byte[]> readAll() {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) {
+            return contents;
+        }
+        
+        Arrays.sort(files);
+        for (File file : files) {
+            String kitId = file.getName().substring(0, file.getName().length() - EXTENSION.length());
+            try {
+                contents.put(kitId, Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                plugin.getLogger().severe("§c[KitFileStore] Could not read " + directory.getName() + "/" + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return contents;
+    }
+    
+    /**
+     * Queue a write of {@code kit}. The kit is serialized right away, so later in-place edits
+     * wait for their own save.
+     */
+    void save(Kit kit) {
+        if (!isValidId(kit.getId())) {
+            plugin.getLogger().severe("§c[KitFileStore] Cannot save kit with invalid ID '" + kit.getId() + "'");
+            return;
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        kit.saveToConfig(config);
+        enqueue(kit.getId(), config.saveToString());
+    }
+    
+    void delete(String kitId) {
+        if (isValidId(kitId)) {
+            enqueue(kitId, null);
+        }
+    }
+    
+    private void enqueue(String kitId, String contents) {
+        synchronized (pending) {
+            long now = System.currentTimeMillis();
+            if (pending.isEmpty()) {
+                firstPendingAt = now;
+            }
+            lastPendingAt = now;
+            pending.put(kitId, contents);
+            
+            if (flushTask == null && !executor.isShutdown()) {
+                flushTask = executor.schedule(this::flushWhenQuiet, saveDelayMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        
+        if (executor.isShutdown()) {
+            // Saved during shutdown, nothing would write it later
+            flush();
+        }
+    }
+    
+    private void flushWhenQuiet() {
+        synchronized (pending) {
+            long now = System.currentTimeMillis();
+            long quietFor = now - lastPendingAt;
+            if (quietFor < saveDelayMillis && now - firstPendingAt < maxDelayMillis && !executor.isShutdown()) {
+                flushTask = executor.schedule(this::flushWhenQuiet, saveDelayMillis - quietFor, TimeUnit.MILLISECONDS);
+                return;
+            }
+            flushTask = null;
+        }
+        flush();
+    }
+    
+    /**
+     * Write every queued change now, on the calling thread
+     */
+    void flush() {
+        synchronized (writeLock) {
+            Map<String, String> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+            
+            for (Map.Entry<String, String> entry : batch.entrySet()) {
+                File file = new File(directory, entry.getKey() + EXTENSION);
+                try {
+                    if (entry.getValue() == null) {
+                        Files.deleteIfExists(file.toPath());
+                        selfWritten.put(file.getName(), DELETED);
+                    } else {
+                        writeAtomically(file, entry.getValue());
+                        selfWritten.put(file.getName(), file.lastModified());
+                    }
+                } catch (IOException e) {
+                    plugin.getLogger().severe("§c[KitFileStore] Could not save kit " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Whether the current state of {@code fileName} comes from our own last write or delete
+     */
+    boolean isSelfWritten(String fileName) {
+        Long written = selfWritten.get(fileName);
+        if (written == null) {
+            return false;
+        }
+        
+        File file = new File(directory, fileName);
+        return file.exists() ? file.lastModified() == written : written == DELETED;
+    }
+    
+    /**
+     * Move the kits of the old single kits.yml into the kits folder. They are written to a side
+     * folder renamed into place at the end, so an interrupted migration runs again next start.
+     */
+    int migrate(ConfigurationSection kitsSection) throws IOException {
+        File staging = new File(directory.getParentFile(), directory.getName() + ".migrating");
+        File[] leftovers = staging.listFiles();
+        if (leftovers != null) {
+            for (File leftover : leftovers) {
+                Files.delete(leftover.toPath());
+            }
+        }
+        Files.createDirectories(staging.toPath());
+        
+        int migrated = 0;
+        if (kitsSection != null) {
+            for (String kitId : kitsSection.getKeys(false)) {
+                ConfigurationSection section = kitsSection.getConfigurationSection(kitId);
+                if (section == null || !isValidId(kitId)) {
+                    plugin.getLogger().warning("§c[KitFileStore] Skipping invalid kit '" + kitId + "' while migrating");
+                    continue;
+                }
+                
+                YamlConfiguration config = new YamlConfiguration();
+                for (String key : section.getKeys(false)) {
+                    config.set(key, section.get(key));
+                }
+                writeAtomically(new File(staging, kitId + EXTENSION), config.saveToString());
+                migrated++;
+            }
+        }
+        
+        Files.move(staging.toPath(), directory.toPath());
+        return migrated;
+    }
+    
+    /**
+     * Stop the I/O thread and write what is still queued
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+    
+    private void writeAtomically(File file, String contents) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(tempFile.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
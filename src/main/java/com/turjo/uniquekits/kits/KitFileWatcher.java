@@ -0,0 +1,99 @@
+package com.turjo.uniquekits.kits;
+
+import com.turjo.uniquekits.UniqueKits;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the kit files of a folder and reports the changed ones once the folder has been quiet
+ * for the debounce delay, so an editor saving in several steps causes a single reload
+ */
+class KitFileWatcher implements Runnable {
+    
+    private final UniqueKits plugin;
+    private final File directory;
+    private final long debounceMillis;
+    private final Consumer<Set<String>> onChange;
+    private WatchService watchService;
+    private Thread thread;
+    
+    KitFileWatcher(UniqueKits plugin, File directory, long debounceMillis, Consumer<Set<String>> onChange) {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+    }
+    
+    void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.toPath().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        
+        thread = new Thread(this, "UniqueKits-KitWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+            watchService = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+    
+    @Override
+    public void run() {
+        WatchService service = watchService;
+        long lastChange = 0;
+        Set<String> changed = new HashSet<>();
+        
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // Block until something happens, or wait out the debounce delay of a pending change
+                WatchKey key = lastChange == 0 ? service.take() : service.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        Object context = event.context();
+                        if (context instanceof Path && context.toString().endsWith(KitFileStore.EXTENSION)) {
+                            changed.add(context.toString());
+                            lastChange = System.currentTimeMillis();
+                        }
+                    }
+                    if (!key.reset()) {
+                        plugin.getLogger().warning("§c[KitFileWatcher] The kits folder can no longer be watched");
+                        return;
+                    }
+                }
+                
+                if (lastChange != 0 && System.currentTimeMillis() - lastChange >= debounceMillis) {
+                    lastChange = 0;
+                    onChange.accept(new HashSet<>(changed));
+                    changed.clear();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+}
@@ -3,11 +3,11 @@ package com.turjo.uniquekits.kits;
 import com.turjo.uniquekits.UniqueKits;
 import com.turjo.uniquekits.hooks.essentials.EssentialsXHook;
 import com.turjo.uniquekits.storage.PlayerData;
+import com.turjo.uniquekits.utils.ItemImportStats;
 import com.turjo.uniquekits.utils.MessageUtils;
 import org.bukkit.Bukkit;
-import org.bukkit.Sound;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -15,20 +15,50 @@ import org.bukkit.potion.PotionEffect;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class KitManager {
     
     private final UniqueKits plugin;
     private boolean essentialsStarterKitDetected = false;
-    private final Map<String, Kit> kits = new ConcurrentHashMap<>();
-    private FileConfiguration kitsConfig;
-    private File kitsFile;
+    
+    // Immutable snapshot replaced as a whole, so readers never see a half-loaded registry.
+    // Writers copy it under registryLock.
+    private volatile Map<String, Kit> kits = Collections.emptyMap();
+    private final Object registryLock = new Object();
+    // Fingerprints of the published kits, diffed against on reload; guarded by registryLock
+    private Map<String, String> fingerprints = new HashMap<>();
+    private final AtomicLong reloadSequence = new AtomicLong();
+    private long publishedSequence;
+    
+    private KitFileStore kitStore;
+    private KitCatalogSnapshot catalogSnapshot;
+    private volatile List<ItemImportStats> itemImportStats = Collections.emptyList();
+    private KitFileWatcher fileWatcher;
+    private final AvailableKitCache availableKitCache;
+    private final ClaimParticleEngine claimParticles;
+    
+    // Kits given on triggers, highest priority first; rebuilt on every registry change
+    private volatile List<Kit> firstJoinKits = Collections.emptyList();
+    private volatile List<Kit> autoJoinKits = Collections.emptyList();
+    private volatile List<Kit> autoRespawnKits = Collections.emptyList();
     
     public KitManager(UniqueKits plugin) {
         this.plugin = plugin;
+        this.availableKitCache = new AvailableKitCache(
+            plugin.getConfigManager().getConfig().getBoolean("performance.available-kits-cache.enabled", true),
+            plugin.getConfigManager().getConfig().getLong("performance.available-kits-cache.expire-after", 5) * 1000L);
+        this.claimParticles = new ClaimParticleEngine(plugin);
         loadKits();
+        startFileWatcher();
         // Delay EssentialsX check until after all managers are initialized
         Bukkit.getScheduler().runTask(plugin, () -> {
             checkEssentialsStarterKit();
@@ -37,27 +67,201 @@ public class KitManager {
     }
     
     private void loadKits() {
-        kitsFile = new File(plugin.getDataFolder(), "kits.yml");
-        if (!kitsFile.exists()) {
-            plugin.saveResource("kits.yml", false);
+        kitStore = new KitFileStore(plugin, new File(plugin.getDataFolder(), "kits"),
+            plugin.getConfigManager().getConfig().getLong("performance.kit-save-delay", 500));
+        migrateKitsFile();
+        if (plugin.getConfigManager().getConfig().getBoolean("performance.kit-snapshot", true)) {
+            catalogSnapshot = new KitCatalogSnapshot(plugin, new File(plugin.getDataFolder(), "kits.cache"));
+        }
+        
+        publish(parseKits(), reloadSequence.incrementAndGet());
+        plugin.getLogger().info("§a[KitManager] Loaded " + kits.size() + " kits successfully!");
+    }
+    
+    /**
+     * Move kits.yml, or the bundled example kits on a fresh install, into the kits folder
+     */
+    private void migrateKitsFile() {
+        File legacyFile = new File(plugin.getDataFolder(), "kits.yml");
+        if (kitStore.getDirectory().isDirectory()) {
+            if (legacyFile.exists()) {
+                plugin.getLogger().warning("§c[KitManager] kits.yml is no longer read, kits are stored in the kits folder");
+            }
+            return;
+        }
+        
+        YamlConfiguration legacy;
+        if (legacyFile.exists()) {
+            legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        } else {
+            InputStream resource = plugin.getResource("kits.yml");
+            legacy = resource != null
+                ? YamlConfiguration.loadConfiguration(new InputStreamReader(resource, StandardCharsets.UTF_8))
+                : new YamlConfiguration();
+        }
+        
+        try {
+            int migrated = kitStore.migrate(legacy.getConfigurationSection("kits"));
+            if (legacyFile.exists()) {
+                Files.move(legacyFile.toPath(), new File(plugin.getDataFolder(), "kits.yml.migrated").toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+                plugin.getLogger().info("§a[KitManager] Migrated " + migrated + " kits from kits.yml into the kits folder (old file kept as kits.yml.migrated)");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("§c[KitManager] Could not migrate kits.yml into the kits folder: " + e.getMessage());
         }
+    }
+    
+    /**
+     * Read the kits folder into a new registry without touching the current one; safe off the main
+     * thread. An unchanged folder is rebuilt from the binary snapshot instead of the YAML parser,
+     * then kit files are parsed, compiled and fingerprinted in parallel on a fork-join pool.
+     */
+    private LoadedKits parseKits() {
+        long start = System.nanoTime();
+        Map<String, byte[]> files = kitStore.readAll();
+        byte[] hash = catalogSnapshot != null ? catalogSnapshot.hash(files) : null;
         
-        kitsConfig = YamlConfiguration.loadConfiguration(kitsFile);
+        ConfigurationSection cached = hash != null ? catalogSnapshot.read(hash) : null;
+        List<String> ids = new ArrayList<>(files.keySet());
+        ConfigurationSection[] sections = new ConfigurationSection[ids.size()];
+        if (cached != null) {
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = cached.getConfigurationSection(ids.get(i));
+            }
+        }
+        long readNanos = System.nanoTime() - start;
         
-        if (kitsConfig.contains("kits")) {
-            ConfigurationSection kitsSection = kitsConfig.getConfigurationSection("kits");
-            if (kitsSection != null) {
-                for (String kitId : kitsSection.getKeys(false)) {
-                    ConfigurationSection kitSection = kitsSection.getConfigurationSection(kitId);
-                    if (kitSection != null) {
-                        Kit kit = Kit.fromConfig(kitId, kitSection);
-                        kits.put(kitId.toLowerCase(), kit);
+        int threads = plugin.getConfigManager().getConfig().getInt("performance.kit-parse-threads", 0);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        
+        // One per kit file, so /uk version can point at the files with legacy or broken items
+        ItemImportStats[] itemStats = new ItemImportStats[ids.size()];
+        List<Kit> parsed;
+        List<String> fingerprints;
+        long parseNanos;
+        long compileNanos;
+        long fingerprintNanos;
+        
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long phaseStart = System.nanoTime();
+            parsed = pool.submit(() -> java.util.stream.IntStream.range(0, sections.length).parallel()
+                .mapToObj(i -> {
+                    if (sections[i] == null) {
+                        sections[i] = parseKitFile(ids.get(i), files.get(ids.get(i)));
                     }
-                }
+                    if (sections[i] == null) {
+                        return null;
+                    }
+                    itemStats[i] = new ItemImportStats(kitStore.getDirectory().getName() + "/" + ids.get(i) + KitFileStore.EXTENSION);
+                    return Kit.fromConfig(ids.get(i), sections[i], itemStats[i]);
+                })
+                .filter(Objects::nonNull)
+                .collect(java.util.stream.Collectors.toList())).get();
+            parseNanos = System.nanoTime() - phaseStart;
+            
+            phaseStart = System.nanoTime();
+            pool.submit(() -> parsed.parallelStream().forEach(Kit::compile)).get();
+            compileNanos = System.nanoTime() - phaseStart;
+            
+            phaseStart = System.nanoTime();
+            fingerprints = pool.submit(() -> parsed.parallelStream()
+                .map(KitManager::fingerprint)
+                .collect(java.util.stream.Collectors.toList())).get();
+            fingerprintNanos = System.nanoTime() - phaseStart;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing kits", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException("Failed to parse kits", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        
+        // A fully parsed folder replaces the snapshot
+        if (cached == null && hash != null && parsed.size() == ids.size()) {
+            Map<String, ConfigurationSection> tree = new LinkedHashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                tree.put(ids.get(i), sections[i]);
             }
+            catalogSnapshot.write(hash, tree);
         }
         
-        plugin.getLogger().info("§a[KitManager] Loaded " + kits.size() + " kits successfully!");
+        // Keep the file order
+        Map<String, Kit> kitsById = new LinkedHashMap<>();
+        Map<String, String> fingerprintsById = new HashMap<>();
+        for (int i = 0; i < parsed.size(); i++) {
+            String key = parsed.get(i).getId().toLowerCase();
+            kitsById.put(key, parsed.get(i));
+            fingerprintsById.put(key, fingerprints.get(i));
+        }
+        
+        plugin.getLogger().info("§a[KitManager] Parsed " + kitsById.size() + " kits on " + threads + " threads: read "
+            + millis(readNanos) + "ms" + (cached != null ? " from snapshot" : "") + ", parse " + millis(parseNanos) + "ms, compile " + millis(compileNanos)
+            + "ms, fingerprint " + millis(fingerprintNanos) + "ms (items are loaded on first use)");
+        
+        List<ItemImportStats> fileStats = new ArrayList<>(itemStats.length);
+        for (ItemImportStats stats : itemStats) {
+            if (stats != null) {
+                fileStats.add(stats);
+            }
+        }
+        
+        return new LoadedKits(kitsById, fingerprintsById, Collections.unmodifiableList(fileStats));
+    }
+    
+    /**
+     * Parse one kit file; an invalid file is reported and skipped
+     */
+    private ConfigurationSection parseKitFile(String kitId, byte[] content) {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(new String(content, StandardCharsets.UTF_8));
+            return config;
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().severe("§c[KitManager] Could not parse " + kitStore.getDirectory().getName() + "/" + kitId
+                + KitFileStore.EXTENSION + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+    
+    /**
+     * Swap in a parsed registry with a single write, unless a later reload already did.
+     * Returns what changed, or null if this reload was superseded.
+     */
+    private KitRegistryDiff publish(LoadedKits loaded, long sequence) {
+        synchronized (registryLock) {
+            if (sequence < publishedSequence) {
+                return null;
+            }
+            publishedSequence = sequence;
+            
+            Map<String, String> before = fingerprints;
+            
+            // Reserve the kits' slots in the per-player arrays up front
+            for (Kit kit : loaded.kits.values()) {
+                KitOrdinals.of(kit.getId());
+            }
+            
+            itemImportStats = loaded.itemStats;
+            kits = Collections.unmodifiableMap(loaded.kits);
+            fingerprints = loaded.fingerprints;
+            registryChanged();
+            return KitRegistryDiff.between(before, fingerprints);
+        }
+    }
+    
+    private static String fingerprint(Kit kit) {
+        YamlConfiguration config = new YamlConfiguration();
+        kit.saveToConfig(config.createSection("kit"));
+        return config.saveToString();
     }
     
     private void checkEssentialsStarterKit() {
@@ -105,38 +309,113 @@ public class KitManager {
             starterKit.setFirstJoinKit(true);
             starterKit.setSound("ENTITY_PLAYER_LEVELUP");
             
-            kits.put("starter", starterKit);
+            registerKit(starterKit);
             saveKit(starterKit);
             
             plugin.getLogger().info("§a[KitManager] Created example 'starter' kit!");
         }
     }
     
-    public void reloadKits() {
-        kits.clear();
+    /**
+     * Reload the kits folder on the calling thread, returning what changed
+     */
+    public KitRegistryDiff reloadKits() {
         checkEssentialsStarterKit();
-        loadKits();
-        plugin.getLogger().info("§a[KitManager] Kits reloaded successfully!");
+        // Pending saves would otherwise be overwritten by their older files
+        kitStore.flush();
+        KitRegistryDiff diff = publish(parseKits(), reloadSequence.incrementAndGet());
+        logReload(diff);
+        return diff;
     }
     
-    public void saveKit(Kit kit) {
-        if (kitsConfig == null) return;
+    /**
+     * Parse the kits folder off the main thread, then swap it in on the main thread and pass
+     * the changes to {@code callback}. A reload overtaken by a later one is dropped.
+     */
+    public void reloadKitsAsync(Consumer<KitRegistryDiff> callback) {
+        long sequence = reloadSequence.incrementAndGet();
         
-        ConfigurationSection kitsSection = kitsConfig.getConfigurationSection("kits");
-        if (kitsSection == null) {
-            kitsSection = kitsConfig.createSection("kits");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            kitStore.flush();
+            LoadedKits loaded = parseKits();
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                checkEssentialsStarterKit();
+                KitRegistryDiff diff = publish(loaded, sequence);
+                if (diff == null) {
+                    return;
+                }
+                
+                logReload(diff);
+                if (callback != null) {
+                    callback.accept(diff);
+                }
+            });
+        });
+    }
+    
+    private void logReload(KitRegistryDiff diff) {
+        if (diff != null) {
+            plugin.getLogger().info("§a[KitManager] Kits reloaded successfully! " + kits.size() + " kits, " + diff);
+        }
+    }
+    
+    private void startFileWatcher() {
+        if (!plugin.getConfigManager().getConfig().getBoolean("settings.kits-file-watcher.enabled", false)) {
+            return;
         }
         
-        ConfigurationSection kitSection = kitsSection.createSection(kit.getId());
-        kit.saveToConfig(kitSection);
-        
+        long debounce = plugin.getConfigManager().getConfig().getLong("settings.kits-file-watcher.debounce", 1000);
+        fileWatcher = new KitFileWatcher(plugin, kitStore.getDirectory(), debounce, this::onKitFilesChanged);
         try {
-            kitsConfig.save(kitsFile);
+            fileWatcher.start();
+            plugin.getLogger().info("§a[KitManager] Watching the kits folder for changes");
         } catch (IOException e) {
-            plugin.getLogger().severe("§c[KitManager] Could not save kit " + kit.getId() + ": " + e.getMessage());
+            fileWatcher = null;
+            plugin.getLogger().warning("§c[KitManager] Could not watch the kits folder: " + e.getMessage());
         }
     }
     
+    private void onKitFilesChanged(Set<String> fileNames) {
+        // Our own saves touch the files too
+        fileNames.removeIf(kitStore::isSelfWritten);
+        if (fileNames.isEmpty()) {
+            return;
+        }
+        
+        plugin.getLogger().info("§a[KitManager] Kit files changed " + fileNames + ", reloading kits");
+        reloadKitsAsync(null);
+    }
+    
+    public void shutdown() {
+        if (fileWatcher != null) {
+            fileWatcher.stop();
+            fileWatcher = null;
+        }
+        kitStore.shutdown();
+        claimParticles.stop();
+    }
+    
+    /**
+     * Queue a write of the kit's file; the file is written off the main thread shortly after
+     */
+    public void saveKit(Kit kit) {
+        // Editors change the kit in place, pick up the new contents
+        kit.compile();
+        String fingerprint = fingerprint(kit);
+        synchronized (registryLock) {
+            if (kits.get(kit.getId().toLowerCase()) == kit) {
+                fingerprints.put(kit.getId().toLowerCase(), fingerprint);
+            }
+        }
+        registryChanged();
+        
+        kitStore.save(kit);
+    }
+    
     public boolean saveKitItems(Kit kit) {
         try {
             saveKit(kit);
@@ -150,16 +429,17 @@ public class KitManager {
     public boolean isEssentialsStarterKitDetected() { return essentialsStarterKitDetected; }
     
     public void deleteKit(String kitId) {
-        kits.remove(kitId.toLowerCase());
-        
-        if (kitsConfig.contains("kits." + kitId)) {
-            kitsConfig.set("kits." + kitId, null);
-            try {
-                kitsConfig.save(kitsFile);
-            } catch (IOException e) {
-                plugin.getLogger().severe("§c[KitManager] Could not delete kit " + kitId + ": " + e.getMessage());
-            }
+        Kit removed;
+        synchronized (registryLock) {
+            Map<String, Kit> updated = new LinkedHashMap<>(kits);
+            removed = updated.remove(kitId.toLowerCase());
+            kits = Collections.unmodifiableMap(updated);
+            fingerprints.remove(kitId.toLowerCase());
+            registryChanged();
         }
+        
+        // The file is named after the kit's ID as written when it was created
+        kitStore.delete(removed != null ? removed.getId() : kitId);
     }
     
     public boolean giveKit(Player player, String kitId, boolean bypassChecks) {
@@ -213,7 +493,7 @@ public class KitManager {
         }
         
         // Give items
-        giveItems(player, kit.getItems());
+        giveItems(player, kit.getDeliveryPlan());
         
         // Apply effects
         for (PotionEffect effect : kit.getEffects()) {
@@ -221,57 +501,42 @@ public class KitManager {
         }
         
         // Execute commands
-        for (String command : kit.getCommands()) {
-            String processedCommand = command
-                .replace("{player}", player.getName())
-                .replace("{uuid}", player.getUniqueId().toString())
-                .replace("{world}", player.getWorld().getName());
-            
-            if (processedCommand.startsWith("[CONSOLE]")) {
-                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand.substring(9));
-            } else if (processedCommand.startsWith("[PLAYER]")) {
-                player.performCommand(processedCommand.substring(8));
-            } else {
-                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand);
-            }
+        for (CommandTemplate command : kit.getCommandTemplates()) {
+            command.execute(player);
         }
         
-        // Play sound
-        if (!kit.getSound().isEmpty()) {
-            try {
-                Sound sound = Sound.valueOf(kit.getSound().toUpperCase());
-                player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid sound for kit " + kit.getId() + ": " + kit.getSound());
-            }
+        // Play sound and particles, resolved when the kit was compiled
+        ClaimEffects claimEffects = kit.getClaimEffects();
+        if (claimEffects.getSound() != null) {
+            player.playSound(player.getLocation(), claimEffects.getSound(), 1.0f, 1.0f);
         }
+        claimParticles.play(player, claimEffects.getParticle());
         
         // Update player data
         if (!bypassChecks) {
             PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
             playerData.setKitCooldown(kit.getId(), System.currentTimeMillis() + kit.getCooldown());
             playerData.addKitUsage(kit.getId());
+            if (kit.isOneTimeUse()) {
+                playerData.markKitAsUsed(kit.getId());
+            }
         }
         
+        // Server-wide claim statistics
+        plugin.getKitStatsManager().recordClaim(kit.getId());
+        
         // Send success message
         MessageUtils.sendMessage(player, plugin.getLanguageManager().getMessage("kit.received", "{kit}", kit.getName()));
         
         return true;
     }
     
-    private void giveItems(Player player, List<ItemStack> items) {
-        if (items == null || items.isEmpty()) {
+    private void giveItems(Player player, KitDeliveryPlan plan) {
+        if (plan.isEmpty()) {
             return;
         }
         
-        List<ItemStack> overflow = new ArrayList<>();
-        
-        for (ItemStack item : items) {
-            if (item == null) continue;
-            
-            HashMap<Integer, ItemStack> notAdded = player.getInventory().addItem(item.clone());
-            overflow.addAll(notAdded.values());
-        }
+        List<ItemStack> overflow = plan.deliver(player);
         
         // Handle overflow items
         if (!overflow.isEmpty()) {
@@ -314,39 +579,90 @@ public class KitManager {
         return kits.values();
     }
     
+    /**
+     * Kits the player can use, highest priority first. The list is shared and must not be modified.
+     */
     public List<Kit> getAvailableKits(Player player) {
-        return kits.values().stream()
+        return availableKitCache.get(player, this::computeAvailableKits);
+    }
+    
+    private List<Kit> computeAvailableKits(Player player) {
+        return Collections.unmodifiableList(kits.values().stream()
             .filter(kit -> kit.canUse(player))
             .sorted(Comparator.comparingInt(Kit::getPriority).reversed())
-            .collect(java.util.stream.Collectors.toList());
+            .collect(java.util.stream.Collectors.toList()));
     }
     
+    public AvailableKitCache getAvailableKitCache() {
+        return availableKitCache;
+    }
+    
+    public ClaimParticleEngine getClaimParticles() {
+        return claimParticles;
+    }
+    
+    /**
+     * How the items of each loaded kit file were read; counts grow as kits load their items
+     */
+    public List<ItemImportStats> getItemImportStats() {
+        return itemImportStats;
+    }
+    
+    // Trigger lists are prebuilt and immutable, reading them allocates nothing
     public List<Kit> getFirstJoinKits() {
-        return kits.values().stream()
-            .filter(Kit::isFirstJoinKit)
-            .collect(java.util.stream.Collectors.toList());
+        return firstJoinKits;
     }
     
     public List<Kit> getAutoJoinKits() {
-        return kits.values().stream()
-            .filter(Kit::isAutoGiveOnJoin)
-            .collect(java.util.stream.Collectors.toList());
+        return autoJoinKits;
     }
     
     public List<Kit> getAutoRespawnKits() {
-        return kits.values().stream()
-            .filter(Kit::isAutoGiveOnRespawn)
-            .collect(java.util.stream.Collectors.toList());
+        return autoRespawnKits;
     }
     
     public void createKit(String kitId) {
         Kit kit = new Kit(kitId);
-        kits.put(kitId.toLowerCase(), kit);
+        registerKit(kit);
         saveKit(kit);
     }
     
     public void addKit(Kit kit) {
-        kits.put(kit.getId().toLowerCase(), kit);
+        registerKit(kit);
+        registryChanged();
+    }
+    
+    private void registerKit(Kit kit) {
+        kit.compile();
+        
+        String fingerprint = fingerprint(kit);
+        
+        // Reserve the kit's slot in the per-player arrays up front
+        KitOrdinals.of(kit.getId());
+        
+        synchronized (registryLock) {
+            Map<String, Kit> updated = new LinkedHashMap<>(kits);
+            updated.put(kit.getId().toLowerCase(), kit);
+            kits = Collections.unmodifiableMap(updated);
+            fingerprints.put(kit.getId().toLowerCase(), fingerprint);
+        }
+    }
+    
+    /**
+     * Called whenever a kit is added, changed or removed
+     */
+    private void registryChanged() {
+        availableKitCache.invalidateAll();
+        
+        Kit[] sorted = kits.values().toArray(new Kit[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Kit::getPriority).reversed());
+        firstJoinKits = triggerList(sorted, Kit::isFirstJoinKit);
+        autoJoinKits = triggerList(sorted, Kit::isAutoGiveOnJoin);
+        autoRespawnKits = triggerList(sorted, Kit::isAutoGiveOnRespawn);
+    }
+    
+    private static List<Kit> triggerList(Kit[] sorted, java.util.function.Predicate<Kit> trigger) {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.stream(sorted).filter(trigger).toArray(Kit[]::new)));
     }
     
     public boolean kitExists(String kitId) {
@@ -356,4 +672,16 @@ public class KitManager {
     public Set<String> getKitNames() {
         return new HashSet<>(kits.keySet());
     }
+    
+    private static final class LoadedKits {
+        private final Map<String, Kit> kits;
+        private final Map<String, String> fingerprints;
+        private final List<ItemImportStats> itemStats;
+        
+        private LoadedKits(Map<String, Kit> kits, Map<String, String> fingerprints, List<ItemImportStats> itemStats) {
+            this.kits = kits;
+            this.fingerprints = fingerprints;
+            this.itemStats = itemStats;
+        }
+    }
 }
\ No newline at end of file
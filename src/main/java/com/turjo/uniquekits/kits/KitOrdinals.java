@@ -0,0 +1,63 @@
+package com.turjo.uniquekits.kits;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every kit ID a small, stable ordinal for the lifetime of the server, so per-player
+ * kit state can live in primitive arrays instead of string-keyed maps. Ordinals are never
+ * reused; a deleted kit keeps its slot in case it comes back on the next reload.
+ */
+public final class KitOrdinals {
+    
+    private static final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[16];
+    private static int size;
+    
+    private KitOrdinals() {
+    }
+    
+    /**
+     * Ordinal of a kit ID, assigning the next free one the first time the ID is seen
+     */
+    public static int of(String kitId) {
+        Integer ordinal = ordinals.get(kitId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        
+        synchronized (KitOrdinals.class) {
+            ordinal = ordinals.get(kitId);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = kitId;
+            ordinals.put(kitId, size);
+            return size++;
+        }
+    }
+    
+    /**
+     * Ordinal of a kit ID, or -1 if it has never been seen
+     */
+    public static int find(String kitId) {
+        Integer ordinal = ordinals.get(kitId);
+        return ordinal != null ? ordinal : -1;
+    }
+    
+    public static String idOf(int ordinal) {
+        return ids[ordinal];
+    }
+    
+    /**
+     * Number of ordinals handed out so far
+     */
+    public static int size() {
+        return ordinals.size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.turjo.uniquekits.kits;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kits added, changed and removed by a reload, compared by their serialized settings
+ */
+public final class KitRegistryDiff {
+    
+    private final List<String> added;
+    private final List<String> changed;
+    private final List<String> removed;
+    
+    private KitRegistryDiff(List<String> added, List<String> changed, List<String> removed) {
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+    
+    /**
+     * Compare two registries given as kit key to fingerprint maps
+     */
+    static KitRegistryDiff between(Map<String, String> before, Map<String, String> after) {
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        
+        for (Map.Entry<String, String> entry : after.entrySet()) {
+            String previous = before.get(entry.getKey());
+            if (previous == null) {
+                added.add(entry.getKey());
+            } else if (!previous.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String kitId : before.keySet()) {
+            if (!after.containsKey(kitId)) {
+                removed.add(kitId);
+            }
+        }
+        
+        Collections.sort(added);
+        Collections.sort(changed);
+        Collections.sort(removed);
+        return new KitRegistryDiff(Collections.unmodifiableList(added), Collections.unmodifiableList(changed),
+            Collections.unmodifiableList(removed));
+    }
+    
+    public List<String> getAdded() {
+        return added;
+    }
+    
+    public List<String> getChanged() {
+        return changed;
+    }
+    
+    public List<String> getRemoved() {
+        return removed;
+    }
+    
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "no changes";
+        }
+        
+        StringBuilder summary = new StringBuilder();
+        append(summary, "added", added);
+        append(summary, "changed", changed);
+        append(summary, "removed", removed);
+        return summary.toString();
+    }
+    
+    private static void append(StringBuilder summary, String label, List<String> kits) {
+        if (kits.isEmpty()) {
+            return;
+        }
+        if (summary.length() > 0) {
+            summary.append(", ");
+        }
+        summary.append(kits.size()).append(' ').append(label).append(' ').append(kits);
+    }
+}
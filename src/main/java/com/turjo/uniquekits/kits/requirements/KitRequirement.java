@@ -0,0 +1,20 @@
+package com.turjo.uniquekits.kits.requirements;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A compiled check a player must pass to use a kit
+ */
+@FunctionalInterface
+public interface KitRequirement {
+    
+    boolean test(Player player);
+    
+    /**
+     * Builds a requirement from its raw config value, or returns null to ignore an invalid value
+     */
+    @FunctionalInterface
+    interface Factory {
+        KitRequirement create(Object value);
+    }
+}
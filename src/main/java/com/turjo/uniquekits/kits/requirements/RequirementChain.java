@@ -0,0 +1,31 @@
+package com.turjo.uniquekits.kits.requirements;
+
+import org.bukkit.entity.Player;
+
+/**
+ * The requirements of one kit, cheapest first, so a failing cheap check
+ * skips the permission lookups and economy calls behind it
+ */
+public final class RequirementChain {
+    
+    public static final RequirementChain EMPTY = new RequirementChain(new KitRequirement[0]);
+    
+    private final KitRequirement[] requirements;
+    
+    RequirementChain(KitRequirement[] requirements) {
+        this.requirements = requirements;
+    }
+    
+    public boolean test(Player player) {
+        for (KitRequirement requirement : requirements) {
+            if (!requirement.test(player)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public int size() {
+        return requirements.length;
+    }
+}
@@ -0,0 +1,170 @@
+package com.turjo.uniquekits.kits.requirements;
+
+import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.kits.Kit;
+import net.milkbowl.vault.economy.Economy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requirement types usable in a kit's {@code requirements} section, and the compiler turning
+ * a kit's permission, world lists and requirements into a {@link RequirementChain}.
+ * Other plugins or modules add types with {@link #register}; kits pick them up on their next compile.
+ */
+public final class RequirementRegistry {
+    
+    // Relative cost of a check, the chain runs the cheapest first
+    public static final int COST_TRIVIAL = 0;
+    public static final int COST_PERMISSION = 10;
+    public static final int COST_EXTERNAL = 100;
+    
+    private static final Map<String, Type> types = new ConcurrentHashMap<>();
+    
+    static {
+        register("level", COST_TRIVIAL, value -> {
+            Integer level = parseInt(value);
+            return level == null ? null : player -> player.getLevel() >= level;
+        });
+        register("exp", COST_TRIVIAL, value -> {
+            Integer exp = parseInt(value);
+            return exp == null ? null : player -> player.getTotalExperience() >= exp;
+        });
+        register("permission", COST_PERMISSION, value -> {
+            if (value == null) {
+                return null;
+            }
+            String node = value.toString();
+            return player -> player.hasPermission(node);
+        });
+        register("money", COST_EXTERNAL, value -> {
+            Double money = parseDouble(value);
+            if (money == null) {
+                return null;
+            }
+            return player -> {
+                // Without an economy the requirement cannot apply
+                Economy economy = UniqueKits.getInstance().getHookManager().getEconomy();
+                return economy == null || economy.getBalance(player) >= money;
+            };
+        });
+    }
+    
+    private RequirementRegistry() {
+    }
+    
+    /**
+     * Add or replace a requirement type, matched case-insensitively against the config keys
+     */
+    public static void register(String type, int cost, KitRequirement.Factory factory) {
+        types.put(type.toLowerCase(), new Type(cost, factory));
+    }
+    
+    public static void unregister(String type) {
+        types.remove(type.toLowerCase());
+    }
+    
+    public static boolean isRegistered(String type) {
+        return types.containsKey(type.toLowerCase());
+    }
+    
+    public static RequirementChain compile(Kit kit) {
+        List<Compiled> compiled = new ArrayList<>();
+        
+        Set<String> allowedWorlds = new HashSet<>(kit.getAllowedWorlds());
+        if (!allowedWorlds.isEmpty()) {
+            compiled.add(new Compiled(COST_TRIVIAL, player -> allowedWorlds.contains(player.getWorld().getName())
+                || player.hasPermission("uniquekits.bypass.world")));
+        }
+        
+        Set<String> blockedWorlds = new HashSet<>(kit.getBlockedWorlds());
+        if (!blockedWorlds.isEmpty()) {
+            compiled.add(new Compiled(COST_TRIVIAL, player -> !blockedWorlds.contains(player.getWorld().getName())
+                || player.hasPermission("uniquekits.bypass.world")));
+        }
+        
+        String permission = kit.getPermission();
+        if (permission != null && !permission.isEmpty()) {
+            compiled.add(new Compiled(COST_PERMISSION, player -> player.hasPermission(permission)
+                || player.hasPermission("uniquekits.bypass.permission")));
+        }
+        
+        for (Map.Entry<String, Object> entry : kit.getRequirements().entrySet()) {
+            Type type = types.get(entry.getKey().toLowerCase());
+            if (type == null) {
+                UniqueKits.getInstance().getLogger().warning("Unknown requirement '" + entry.getKey() + "' in kit " + kit.getId());
+                continue;
+            }
+            
+            KitRequirement requirement = type.factory.create(entry.getValue());
+            if (requirement != null) {
+                compiled.add(new Compiled(type.cost, requirement));
+            }
+        }
+        
+        if (compiled.isEmpty()) {
+            return RequirementChain.EMPTY;
+        }
+        
+        // Stable sort keeps the config order among checks of the same cost
+        compiled.sort(Comparator.comparingInt(c -> c.cost));
+        KitRequirement[] chain = new KitRequirement[compiled.size()];
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = compiled.get(i).requirement;
+        }
+        return new RequirementChain(chain);
+    }
+    
+    private static Integer parseInt(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static Double parseDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static final class Type {
+        private final int cost;
+        private final KitRequirement.Factory factory;
+        
+        private Type(int cost, KitRequirement.Factory factory) {
+            this.cost = cost;
+            this.factory = factory;
+        }
+    }
+    
+    private static final class Compiled {
+        private final int cost;
+        private final KitRequirement requirement;
+        
+        private Compiled(int cost, KitRequirement requirement) {
+            this.cost = cost;
+            this.requirement = requirement;
+        }
+    }
+}
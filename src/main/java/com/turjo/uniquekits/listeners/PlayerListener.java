@@ -7,7 +7,11 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerExpChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 
@@ -21,6 +25,29 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.LOW)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Load player data off the main thread so the join doesn't block on disk I/O
+        try {
+            plugin.getPlayerDataManager().preloadPlayerData(event.getUniqueId());
+        } catch (Exception e) {
+            // The join falls back to a synchronous load
+            plugin.getLogger().warning("§c[PlayerListener] Failed to preload data for " + event.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLoginMonitor(AsyncPlayerPreLoginEvent event) {
+        // Another plugin denied the login after we preloaded
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.getPlayerDataManager().discardPreload(event.getUniqueId());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
@@ -64,6 +91,23 @@ public class PlayerListener implements Listener {
         
         // Save and unload player data
         plugin.getPlayerDataManager().unloadPlayerData(player.getUniqueId());
+        plugin.getKitManager().getAvailableKitCache().invalidate(player.getUniqueId());
+    }
+    
+    // World and experience requirements decide which kits are available
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.getKitManager().getAvailableKitCache().invalidate(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelChange(PlayerLevelChangeEvent event) {
+        plugin.getKitManager().getAvailableKitCache().invalidate(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onExpChange(PlayerExpChangeEvent event) {
+        plugin.getKitManager().getAvailableKitCache().invalidate(event.getPlayer().getUniqueId());
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
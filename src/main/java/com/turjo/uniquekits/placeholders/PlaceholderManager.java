@@ -1,6 +1,8 @@
 package com.turjo.uniquekits.placeholders;
 
 import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.stats.KitLeaderboard;
+import com.turjo.uniquekits.stats.KitUsageStats;
 import com.turjo.uniquekits.storage.PlayerData;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
@@ -41,11 +43,21 @@ public class PlaceholderManager extends PlaceholderExpansion {
     
     @Override
     public String onRequest(OfflinePlayer player, @NotNull String params) {
+        // Leaderboards do not depend on the requesting player
+        if (params.startsWith("top_")) {
+            return leaderboardPlaceholder(params.substring("top_".length()));
+        }
+        
         if (player == null) {
             return "";
         }
         
-        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
+        // Offline lookups go through the bounded offline cache instead of the online one
+        PlayerData playerData = plugin.getPlayerDataManager().getOfflinePlayerData(player.getUniqueId());
+        if (playerData == null) {
+            // No stored data (NPCs, players who never joined)
+            playerData = new PlayerData(player.getUniqueId());
+        }
         
         switch (params.toLowerCase()) {
             case "total_kits":
@@ -73,6 +85,15 @@ public class PlaceholderManager extends PlaceholderExpansion {
             case "total_playtime":
                 return formatTime(playerData.getTotalPlayTime());
                 
+            case "server_claims":
+                return String.valueOf(plugin.getKitStatsManager().getTotalClaims());
+                
+            case "server_claims_hour":
+                return String.valueOf(plugin.getKitStatsManager().getClaimsLastHour());
+                
+            case "server_claims_day":
+                return String.valueOf(plugin.getKitStatsManager().getClaimsLastDay());
+                
             default:
                 // Check for kit-specific placeholders
                 if (params.startsWith("kit_cooldown_")) {
@@ -88,6 +109,22 @@ public class PlaceholderManager extends PlaceholderExpansion {
                     return String.valueOf(playerData.getKitUsageCount(kitId));
                 }
                 
+                // Server-wide claim statistics
+                if (params.startsWith("kit_claims_hour_")) {
+                    KitUsageStats stats = plugin.getKitStatsManager().getStats(params.substring("kit_claims_hour_".length()));
+                    return String.valueOf(stats != null ? stats.getClaimsLastHour(System.currentTimeMillis()) : 0);
+                }
+                
+                if (params.startsWith("kit_claims_day_")) {
+                    KitUsageStats stats = plugin.getKitStatsManager().getStats(params.substring("kit_claims_day_".length()));
+                    return String.valueOf(stats != null ? stats.getClaimsLastDay(System.currentTimeMillis()) : 0);
+                }
+                
+                if (params.startsWith("kit_claims_")) {
+                    KitUsageStats stats = plugin.getKitStatsManager().getStats(params.substring("kit_claims_".length()));
+                    return String.valueOf(stats != null ? stats.getTotalClaims() : 0);
+                }
+                
                 if (params.startsWith("kit_used_")) {
                     String kitId = params.substring("kit_used_".length());
                     return playerData.hasUsedKit(kitId) ? "Yes" : "No";
@@ -99,6 +136,47 @@ public class PlaceholderManager extends PlaceholderExpansion {
         return null;
     }
     
+    /**
+     * Handles {@code top_<kit>_<rank>_name} and {@code top_<kit>_<rank>_value}
+     */
+    private String leaderboardPlaceholder(String params) {
+        boolean name;
+        if (params.endsWith("_name")) {
+            name = true;
+        } else if (params.endsWith("_value")) {
+            name = false;
+        } else {
+            return null;
+        }
+        
+        String rest = params.substring(0, params.lastIndexOf('_'));
+        int separator = rest.lastIndexOf('_');
+        if (separator <= 0) {
+            return null;
+        }
+        
+        int rank;
+        try {
+            rank = Integer.parseInt(rest.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        KitLeaderboard.Entry entry = plugin.getLeaderboardManager().getEntry(rest.substring(0, separator), rank);
+        if (entry == null) {
+            return name ? "-" : "0";
+        }
+        if (!name) {
+            return String.valueOf(entry.getCount());
+        }
+        
+        if (entry.getName() != null) {
+            return entry.getName();
+        }
+        String offlineName = plugin.getServer().getOfflinePlayer(entry.getPlayerId()).getName();
+        return offlineName != null ? offlineName : "-";
+    }
+    
     private String formatTime(long millis) {
         if (millis <= 0) return "0s";
         
@@ -0,0 +1,107 @@
+package com.turjo.uniquekits.stats;
+
+import com.turjo.uniquekits.utils.IndexedSkipList;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Players ranked by how often they claimed one kit, highest first.
+ * Placeholders may query from any thread, so access is synchronized.
+ */
+public class KitLeaderboard {
+    
+    // Most uses first, ties broken by UUID so the order is total
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::getCount).reversed()
+        .thenComparing(Entry::getPlayerId);
+    
+    private final String kitId;
+    private final IndexedSkipList<Entry> ranking = new IndexedSkipList<>(ORDER);
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    
+    // Players updated live while the startup scan runs; their stored counts are outdated
+    private Set<UUID> updatedDuringBuild = new HashSet<>();
+    
+    public KitLeaderboard(String kitId) {
+        this.kitId = kitId;
+    }
+    
+    public synchronized void update(UUID playerId, String name, int count) {
+        if (updatedDuringBuild != null) {
+            updatedDuringBuild.add(playerId);
+        }
+        put(playerId, name, count);
+    }
+    
+    /**
+     * Add a count read from storage, unless the player was already updated live
+     */
+    synchronized void seed(UUID playerId, String name, int count) {
+        if (updatedDuringBuild == null || !updatedDuringBuild.contains(playerId)) {
+            put(playerId, name, count);
+        }
+    }
+    
+    synchronized void finishBuild() {
+        updatedDuringBuild = null;
+    }
+    
+    /**
+     * Entry at a 1-based rank, or null if fewer players claimed the kit
+     */
+    public synchronized Entry get(int rank) {
+        return ranking.get(rank - 1);
+    }
+    
+    public synchronized int size() {
+        return ranking.size();
+    }
+    
+    public String getKitId() {
+        return kitId;
+    }
+    
+    private void put(UUID playerId, String name, int count) {
+        Entry previous = entries.remove(playerId);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        
+        if (count > 0) {
+            Entry entry = new Entry(playerId, name != null && !name.isEmpty() ? name : previous != null ? previous.name : null, count);
+            entries.put(playerId, entry);
+            ranking.add(entry);
+        }
+    }
+    
+    public static final class Entry {
+        private final UUID playerId;
+        private final String name;
+        private final int count;
+        
+        private Entry(UUID playerId, String name, int count) {
+            this.playerId = playerId;
+            this.name = name;
+            this.count = count;
+        }
+        
+        public UUID getPlayerId() {
+            return playerId;
+        }
+        
+        /**
+         * Last known name, or null if the player's name was never stored
+         */
+        public String getName() {
+            return name;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+    }
+}
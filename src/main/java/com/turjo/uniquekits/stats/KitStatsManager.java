@@ -0,0 +1,192 @@
+package com.turjo.uniquekits.stats;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Server-wide kit claim statistics, fed by every kit delivery and kept in memory,
+ * so nothing ever has to scan player files. Saved to stats.yml periodically and on shutdown.
+ */
+public class KitStatsManager {
+    
+    private final UniqueKits plugin;
+    private final File statsFile;
+    private final Map<String, KitUsageStats> kitStats = new ConcurrentHashMap<>();
+    private final LongAdder totalClaims = new LongAdder();
+    private BukkitTask saveTask;
+    
+    public KitStatsManager(UniqueKits plugin) {
+        this.plugin = plugin;
+        this.statsFile = new File(plugin.getDataFolder(), "stats.yml");
+        
+        loadStats();
+        plugin.getLogger().info("§a[KitStatsManager] Loaded claim statistics for " + kitStats.size() + " kits");
+    }
+    
+    public void recordClaim(String kitId) {
+        getOrCreate(kitId).recordClaim(System.currentTimeMillis());
+        totalClaims.increment();
+    }
+    
+    /**
+     * Statistics of a kit, or null if it was never claimed
+     */
+    public KitUsageStats getStats(String kitId) {
+        return kitStats.get(kitId.toLowerCase());
+    }
+    
+    public Collection<KitUsageStats> getAllStats() {
+        return kitStats.values();
+    }
+    
+    /**
+     * Kits ordered by total claims, most claimed first
+     */
+    public List<KitUsageStats> getMostClaimed(int limit) {
+        return kitStats.values().stream()
+            .sorted(Comparator.comparingLong(KitUsageStats::getTotalClaims).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+    
+    public long getTotalClaims() {
+        return totalClaims.sum();
+    }
+    
+    public long getClaimsLastHour() {
+        long now = System.currentTimeMillis();
+        return kitStats.values().stream().mapToLong(stats -> stats.getClaimsLastHour(now)).sum();
+    }
+    
+    public long getClaimsLastDay() {
+        long now = System.currentTimeMillis();
+        return kitStats.values().stream().mapToLong(stats -> stats.getClaimsLastDay(now)).sum();
+    }
+    
+    private KitUsageStats getOrCreate(String kitId) {
+        return kitStats.computeIfAbsent(kitId.toLowerCase(), KitUsageStats::new);
+    }
+    
+    // Persistence
+    public void startSaveTask() {
+        stopSaveTask();
+        long interval = plugin.getConfigManager().getConfig().getLong("settings.stats.save-interval", 300) * 20L;
+        saveTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::saveStats, interval, interval);
+    }
+    
+    public void stopSaveTask() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+    }
+    
+    public void shutdown() {
+        stopSaveTask();
+        saveStats();
+    }
+    
+    public synchronized void saveStats() {
+        FileConfiguration config = newStatsConfig();
+        config.set("total-claims", totalClaims.sum());
+        
+        ConfigurationSection kitsSection = config.createSection("kits");
+        for (KitUsageStats stats : kitStats.values()) {
+            ConfigurationSection section = kitsSection.createSection(stats.getKitId());
+            section.set("total", stats.getTotalClaims());
+            section.set("last-claim", stats.getLastClaim());
+            saveCounter(section.createSection("minutes"), stats.getMinutes());
+            saveCounter(section.createSection("hours"), stats.getHours());
+        }
+        
+        try {
+            config.save(statsFile);
+        } catch (IOException e) {
+            plugin.getLogger().warning("§c[KitStatsManager] Failed to save statistics: " + e.getMessage());
+        }
+    }
+    
+    private void loadStats() {
+        if (!statsFile.exists()) {
+            return;
+        }
+        
+        FileConfiguration config = newStatsConfig();
+        try {
+            config.load(statsFile);
+        } catch (IOException | InvalidConfigurationException e) {
+            plugin.getLogger().warning("§c[KitStatsManager] Failed to load statistics: " + e.getMessage());
+            return;
+        }
+        totalClaims.add(config.getLong("total-claims", 0));
+        
+        ConfigurationSection kitsSection = config.getConfigurationSection("kits");
+        if (kitsSection == null) {
+            return;
+        }
+        
+        for (String kitId : kitsSection.getKeys(false)) {
+            ConfigurationSection section = kitsSection.getConfigurationSection(kitId);
+            if (section == null) {
+                continue;
+            }
+            
+            KitUsageStats stats = getOrCreate(kitId);
+            stats.restore(section.getLong("total", 0), section.getLong("last-claim", 0));
+            loadCounter(section.getConfigurationSection("minutes"), stats.getMinutes());
+            loadCounter(section.getConfigurationSection("hours"), stats.getHours());
+        }
+    }
+    
+    /**
+     * Kit IDs come from file names and may contain dots, so they must not split into paths
+     */
+    private static FileConfiguration newStatsConfig() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.options().pathSeparator('\0');
+        return config;
+    }
+    
+    // Only buckets holding claims are written
+    private void saveCounter(ConfigurationSection section, RollingCounter counter) {
+        long[] periods = counter.exportPeriods();
+        long[] counts = counter.exportCounts();
+        List<Long> storedPeriods = new ArrayList<>();
+        List<Long> storedCounts = new ArrayList<>();
+        
+        for (int i = 0; i < periods.length; i++) {
+            if (counts[i] > 0) {
+                storedPeriods.add(periods[i]);
+                storedCounts.add(counts[i]);
+            }
+        }
+        
+        section.set("periods", storedPeriods);
+        section.set("counts", storedCounts);
+    }
+    
+    private void loadCounter(ConfigurationSection section, RollingCounter counter) {
+        if (section == null) {
+            return;
+        }
+        
+        List<Long> periods = section.getLongList("periods");
+        List<Long> counts = section.getLongList("counts");
+        counter.restore(periods.stream().mapToLong(Long::longValue).toArray(), counts.stream().mapToLong(Long::longValue).toArray());
+    }
+}
@@ -0,0 +1,69 @@
+package com.turjo.uniquekits.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-wide claim counters of a single kit
+ */
+public class KitUsageStats {
+    
+    public static final int MINUTE_BUCKETS = 60;
+    public static final int HOUR_BUCKETS = 24;
+    
+    private final String kitId;
+    private final LongAdder totalClaims = new LongAdder();
+    private final RollingCounter minutes = new RollingCounter(TimeUnit.MINUTES.toMillis(1), MINUTE_BUCKETS);
+    private final RollingCounter hours = new RollingCounter(TimeUnit.HOURS.toMillis(1), HOUR_BUCKETS);
+    private volatile long lastClaim;
+    
+    public KitUsageStats(String kitId) {
+        this.kitId = kitId;
+    }
+    
+    public void recordClaim(long now) {
+        totalClaims.increment();
+        minutes.increment(now);
+        hours.increment(now);
+        lastClaim = now;
+    }
+    
+    public String getKitId() {
+        return kitId;
+    }
+    
+    public long getTotalClaims() {
+        return totalClaims.sum();
+    }
+    
+    /**
+     * Claims in the last hour, by minute buckets
+     */
+    public long getClaimsLastHour(long now) {
+        return minutes.sum(now);
+    }
+    
+    /**
+     * Claims in the last 24 hours, by hour buckets
+     */
+    public long getClaimsLastDay(long now) {
+        return hours.sum(now);
+    }
+    
+    public long getLastClaim() {
+        return lastClaim;
+    }
+    
+    RollingCounter getMinutes() {
+        return minutes;
+    }
+    
+    RollingCounter getHours() {
+        return hours;
+    }
+    
+    void restore(long total, long lastClaim) {
+        totalClaims.add(total);
+        this.lastClaim = Math.max(this.lastClaim, lastClaim);
+    }
+}
@@ -0,0 +1,121 @@
+package com.turjo.uniquekits.stats;
+
+import com.turjo.uniquekits.UniqueKits;
+import com.turjo.uniquekits.storage.PlayerData;
+import com.turjo.uniquekits.storage.PlayerDataManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-kit usage leaderboards. Built once at startup by streaming every stored player through
+ * a parallel scan, then kept current from usage changes, so ranks never require a rescan.
+ */
+public class LeaderboardManager {
+    
+    private final UniqueKits plugin;
+    private final Map<String, KitLeaderboard> boards = new ConcurrentHashMap<>();
+    // Disabled leaderboards keep no entries at all
+    private final boolean enabled;
+    private volatile boolean ready;
+    
+    public LeaderboardManager(UniqueKits plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfigManager().getConfig().getBoolean("settings.leaderboards.enabled", true);
+    }
+    
+    /**
+     * Index every stored player in the background
+     */
+    public void buildAsync() {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::build);
+    }
+    
+    private void build() {
+        long start = System.currentTimeMillis();
+        PlayerDataManager playerDataManager = plugin.getPlayerDataManager();
+        int threads = Math.max(1, plugin.getConfigManager().getConfig().getInt("performance.leaderboard-build-threads", 4));
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<UUID> players = playerDataManager.listStoredPlayers();
+            
+            // Each player is loaded, indexed and dropped; nothing else is kept in memory
+            pool.submit(() -> players.parallelStream().forEach(playerId -> {
+                try {
+                    PlayerData data = playerDataManager.readPlayerData(playerId);
+                    if (data != null) {
+                        for (Map.Entry<String, Integer> usage : data.getAllKitUsages().entrySet()) {
+                            getOrCreate(usage.getKey()).seed(playerId, data.getLastKnownName(), usage.getValue());
+                        }
+                        scanned.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            })).get();
+        } catch (Exception e) {
+            plugin.getLogger().severe("§c[LeaderboardManager] Failed to build leaderboards: " + e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+        
+        for (KitLeaderboard board : boards.values()) {
+            board.finishBuild();
+        }
+        ready = true;
+        
+        plugin.getLogger().info("§a[LeaderboardManager] Indexed " + scanned.get() + " players across " + boards.size()
+            + " kits in " + (System.currentTimeMillis() - start) + "ms on " + threads + " threads");
+        if (failed.get() > 0) {
+            plugin.getLogger().warning("§c[LeaderboardManager] " + failed.get() + " player files could not be read");
+        }
+    }
+    
+    /**
+     * Record a player's new usage count of a kit
+     */
+    public void update(PlayerData data, String kitId, int count) {
+        if (!enabled) {
+            return;
+        }
+        getOrCreate(kitId).update(data.getPlayerId(), data.getLastKnownName(), count);
+    }
+    
+    /**
+     * Entry at a 1-based rank of a kit's leaderboard, or null if there is none
+     */
+    public KitLeaderboard.Entry getEntry(String kitId, int rank) {
+        if (!enabled) {
+            return null;
+        }
+        KitLeaderboard board = boards.get(kitId.toLowerCase());
+        return board != null ? board.get(rank) : null;
+    }
+    
+    public KitLeaderboard getLeaderboard(String kitId) {
+        return boards.get(kitId.toLowerCase());
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    private KitLeaderboard getOrCreate(String kitId) {
+        return boards.computeIfAbsent(kitId.toLowerCase(), KitLeaderboard::new);
+    }
+}
@@ -0,0 +1,107 @@
+package com.turjo.uniquekits.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding window, kept as a ring of fixed-width time buckets.
+ * A bucket is recycled the first time it is written in a new period; an increment racing
+ * with that recycle may be dropped, which is fine for statistics.
+ */
+public class RollingCounter {
+    
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray periods;
+    
+    public RollingCounter(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.counts = new AtomicLongArray(bucketCount);
+        this.periods = new AtomicLongArray(bucketCount);
+    }
+    
+    public void increment(long nowMillis) {
+        add(nowMillis / bucketMillis, 1);
+    }
+    
+    /**
+     * Events counted in the last {@code buckets} buckets, the current one included
+     */
+    public long sum(long nowMillis, int buckets) {
+        long current = nowMillis / bucketMillis;
+        long oldest = current - Math.min(buckets, bucketCount) + 1;
+        long total = 0;
+        
+        for (int i = 0; i < bucketCount; i++) {
+            long period = periods.get(i);
+            if (period >= oldest && period <= current) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+    
+    public long sum(long nowMillis) {
+        return sum(nowMillis, bucketCount);
+    }
+    
+    /**
+     * Count of a single bucket, {@code ago} buckets before the current one
+     */
+    public long get(long nowMillis, int ago) {
+        long period = nowMillis / bucketMillis - ago;
+        int index = indexOf(period);
+        return periods.get(index) == period ? counts.get(index) : 0;
+    }
+    
+    public int getBucketCount() {
+        return bucketCount;
+    }
+    
+    // Persistence: one period/count pair per bucket
+    public long[] exportPeriods() {
+        long[] values = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            values[i] = periods.get(i);
+        }
+        return values;
+    }
+    
+    public long[] exportCounts() {
+        long[] values = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            values[i] = counts.get(i);
+        }
+        return values;
+    }
+    
+    public void restore(long[] storedPeriods, long[] storedCounts) {
+        for (int i = 0; i < Math.min(storedPeriods.length, storedCounts.length); i++) {
+            add(storedPeriods[i], storedCounts[i]);
+        }
+    }
+    
+    private void add(long period, long amount) {
+        int index = indexOf(period);
+        
+        long stored = periods.get(index);
+        while (stored != period) {
+            if (stored > period) {
+                // Older than what the ring holds now
+                return;
+            }
+            if (periods.compareAndSet(index, stored, period)) {
+                counts.set(index, 0);
+                break;
+            }
+            stored = periods.get(index);
+        }
+        
+        counts.addAndGet(index, amount);
+    }
+    
+    private int indexOf(long period) {
+        return (int) Math.floorMod(period, (long) bucketCount);
+    }
+}
@@ -0,0 +1,196 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads auto-saving over the whole interval. Every player is assigned a slot
+ * from its UUID hash and each slice only flushes the changed players of one slot,
+ * so the disk sees a steady trickle instead of one burst per interval.
+ * Each slice snapshots its players on the main thread and writes them asynchronously.
+ */
+public class AutoSaveScheduler {
+    
+    private final UniqueKits plugin;
+    private final PlayerDataManager manager;
+    private final ConcurrentLinkedQueue<UUID>[] slots;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private BukkitTask task;
+    private int cursor;
+    
+    // Statistics of the cycle in progress
+    private int cycleSaves;
+    private long cycleBytes;
+    private long cycleWorstSliceNanos;
+    
+    // Statistics of the last completed cycle
+    private volatile int lastCycleSaves;
+    private volatile long lastCycleBytes;
+    private volatile long lastCycleWorstSliceNanos;
+    private volatile long worstSliceNanos;
+    private volatile long worstSnapshotNanos;
+    
+    @SuppressWarnings("unchecked")
+    public AutoSaveScheduler(UniqueKits plugin, PlayerDataManager manager, int slotCount) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.slots = new ConcurrentLinkedQueue[Math.max(1, slotCount)];
+        
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+    
+    public void start(long sliceTicks) {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::runSlice, sliceTicks, sliceTicks);
+    }
+    
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        
+        // Let a write that is already running finish before anything else saves
+        long deadline = System.currentTimeMillis() + 5000;
+        while (running.get() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Queue a changed player for its slot. Duplicates are coalesced when the slot is flushed.
+     */
+    public void enqueue(UUID playerId) {
+        slots[slotOf(playerId)].add(playerId);
+        queueDepth.incrementAndGet();
+    }
+    
+    private int slotOf(UUID playerId) {
+        return Math.floorMod(playerId.hashCode(), slots.length);
+    }
+    
+    private void runSlice() {
+        // Skip this slice if the previous one is still writing
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        
+        try {
+            long start = System.nanoTime();
+            
+            Set<UUID> queued = new LinkedHashSet<>();
+            UUID playerId;
+            ConcurrentLinkedQueue<UUID> slot = slots[cursor];
+            while ((playerId = slot.poll()) != null) {
+                queueDepth.decrementAndGet();
+                queued.add(playerId);
+            }
+            
+            cursor = (cursor + 1) % slots.length;
+            boolean endsCycle = cursor == 0;
+            
+            // Snapshots are cheap array copies; the disk work happens off the main thread
+            PlayerDataManager.SaveBatch batch = manager.prepareQueued(queued);
+            long snapshotNanos = System.nanoTime() - start;
+            
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> writeSlice(batch, snapshotNanos, endsCycle));
+        } catch (Exception e) {
+            plugin.getLogger().warning("§c[AutoSaveScheduler] Auto-save slice failed: " + e.getMessage());
+            running.set(false);
+        }
+    }
+    
+    private void writeSlice(PlayerDataManager.SaveBatch batch, long snapshotNanos, boolean endsCycle) {
+        try {
+            long start = System.nanoTime();
+            
+            if (!batch.isEmpty()) {
+                long bytesBefore = manager.getStore().getBytesWritten();
+                cycleSaves += manager.writeBatch(batch);
+                cycleBytes += manager.getStore().getBytesWritten() - bytesBefore;
+            }
+            
+            long duration = snapshotNanos + System.nanoTime() - start;
+            if (duration > cycleWorstSliceNanos) {
+                cycleWorstSliceNanos = duration;
+            }
+            if (duration > worstSliceNanos) {
+                worstSliceNanos = duration;
+            }
+            if (snapshotNanos > worstSnapshotNanos) {
+                worstSnapshotNanos = snapshotNanos;
+            }
+            
+            if (endsCycle) {
+                completeCycle();
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("§c[AutoSaveScheduler] Auto-save slice failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private void completeCycle() {
+        lastCycleSaves = cycleSaves;
+        lastCycleBytes = cycleBytes;
+        lastCycleWorstSliceNanos = cycleWorstSliceNanos;
+        cycleSaves = 0;
+        cycleBytes = 0;
+        cycleWorstSliceNanos = 0;
+        
+        manager.onAutoSaveCycleComplete();
+        
+        if (lastCycleSaves > 0) {
+            plugin.getLogger().info("§a[AutoSaveScheduler] Auto-save cycle wrote " + lastCycleSaves + " players ("
+                + lastCycleBytes + " bytes), worst slice " + (lastCycleWorstSliceNanos / 1_000_000) + "ms");
+        }
+    }
+    
+    // Statistics
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+    
+    public int getSlotCount() {
+        return slots.length;
+    }
+    
+    public int getLastCycleSaves() {
+        return lastCycleSaves;
+    }
+    
+    public long getLastCycleBytes() {
+        return lastCycleBytes;
+    }
+    
+    public long getLastCycleWorstSliceMillis() {
+        return lastCycleWorstSliceNanos / 1_000_000;
+    }
+    
+    public long getWorstSliceMillis() {
+        return worstSliceNanos / 1_000_000;
+    }
+    
+    /**
+     * Longest time a slice spent on the main thread taking snapshots, in microseconds
+     */
+    public long getWorstSnapshotMicros() {
+        return worstSnapshotNanos / 1_000;
+    }
+}
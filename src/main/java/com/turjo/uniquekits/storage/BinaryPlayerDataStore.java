@@ -0,0 +1,199 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * One compact binary file per player in the playerdata folder, see {@link PlayerDataCodec}.
+ * Players that only have an old YAML file are read from it and migrate on their next save.
+ */
+public class BinaryPlayerDataStore implements PlayerDataStore {
+    
+    private static final String EXTENSION = ".dat";
+    private static final String LEGACY_EXTENSION = ".yml";
+    
+    private final UniqueKits plugin;
+    private final File playerDataFolder;
+    private final YamlPlayerDataStore legacyStore;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    
+    // Striped per-player locks so saves of different players run in parallel
+    private final Object[] locks = new Object[64];
+    
+    public BinaryPlayerDataStore(UniqueKits plugin, File playerDataFolder) {
+        this.plugin = plugin;
+        this.playerDataFolder = playerDataFolder;
+        this.legacyStore = new YamlPlayerDataStore(plugin, playerDataFolder);
+        
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    @Override
+    public void init() {
+        if (!playerDataFolder.exists()) {
+            playerDataFolder.mkdirs();
+        }
+    }
+    
+    @Override
+    public PlayerData load(UUID playerId) throws IOException {
+        File playerFile = getPlayerFile(playerId);
+        
+        if (!playerFile.exists()) {
+            // Lazy migration: the next save writes the binary file and drops the YAML one
+            return legacyStore.load(playerId);
+        }
+        
+        return PlayerDataCodec.decode(playerId, Files.readAllBytes(playerFile.toPath()));
+    }
+    
+    @Override
+    public List<UUID> listPlayers() {
+        // Players not migrated yet only have a YAML file
+        Set<UUID> players = new LinkedHashSet<>(legacyStore.listPlayers());
+        File[] files = playerDataFolder.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    players.add(UUID.fromString(file.getName().substring(0, file.getName().length() - EXTENSION.length())));
+                } catch (IllegalArgumentException ignored) {
+                    // Not a player file
+                }
+            }
+        }
+        return new ArrayList<>(players);
+    }
+    
+    @Override
+    public boolean save(PlayerDataSnapshot data) {
+        synchronized (lockOf(data.getPlayerId())) {
+            return write(data);
+        }
+    }
+    
+    private boolean write(PlayerDataSnapshot data) {
+        File playerFile = getPlayerFile(data.getPlayerId());
+        File tempFile = new File(playerDataFolder, data.getPlayerId() + EXTENSION + ".tmp");
+        
+        try {
+            byte[] bytes = PlayerDataCodec.encode(data);
+            Files.write(tempFile.toPath(), bytes);
+            moveIntoPlace(tempFile, playerFile);
+            bytesWritten.addAndGet(bytes.length);
+        } catch (IOException e) {
+            plugin.getLogger().warning("§c[BinaryPlayerDataStore] Failed to save data for " + data.getPlayerId() + ": " + e.getMessage());
+            tempFile.delete();
+            return false;
+        }
+        
+        File legacyFile = getLegacyFile(data.getPlayerId());
+        if (legacyFile.exists() && !legacyFile.delete()) {
+            plugin.getLogger().warning("§c[BinaryPlayerDataStore] Could not delete migrated file " + legacyFile.getName());
+        }
+        return true;
+    }
+    
+    @Override
+    public int saveAll(Collection<PlayerDataSnapshot> data) {
+        int saved = 0;
+        for (PlayerDataSnapshot playerData : data) {
+            if (save(playerData)) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+    
+    /**
+     * Convert every YAML file that has no binary counterpart yet, returning how many were converted.
+     * Players matched by {@code skip} are left alone (their cached data is saved by the auto-save).
+     */
+    public int migrateAll(Predicate<UUID> skip) {
+        File[] files = playerDataFolder.listFiles((dir, name) -> name.endsWith(LEGACY_EXTENSION));
+        if (files == null) {
+            return 0;
+        }
+        
+        int migrated = 0;
+        for (File file : files) {
+            UUID playerId;
+            try {
+                playerId = UUID.fromString(file.getName().substring(0, file.getName().length() - LEGACY_EXTENSION.length()));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            
+            if (skip.test(playerId)) {
+                continue;
+            }
+            
+            synchronized (lockOf(playerId)) {
+                if (getPlayerFile(playerId).exists()) {
+                    continue;
+                }
+                
+                PlayerData data = legacyStore.load(playerId);
+                if (data != null && write(data.snapshot())) {
+                    migrated++;
+                }
+            }
+        }
+        
+        return migrated;
+    }
+    
+    @Override
+    public boolean supportsConcurrentWrites() {
+        return true;
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+    
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+    
+    @Override
+    public String getName() {
+        return "Binary";
+    }
+    
+    private void moveIntoPlace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private Object lockOf(UUID playerId) {
+        return locks[Math.floorMod(playerId.hashCode(), locks.length)];
+    }
+    
+    private File getPlayerFile(UUID playerId) {
+        return new File(playerDataFolder, playerId.toString() + EXTENSION);
+    }
+    
+    private File getLegacyFile(UUID playerId) {
+        return new File(playerDataFolder, playerId.toString() + LEGACY_EXTENSION);
+    }
+}
@@ -0,0 +1,155 @@
+package com.turjo.uniquekits.storage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size- and time-bounded LRU cache of read-only data for players who are not online,
+ * plus a negative cache of UUIDs that have no stored data at all (NPCs, unknown players).
+ */
+public class OfflinePlayerDataCache {
+    
+    private final int maxSize;
+    private final long expireAfter;
+    private final long negativeExpireAfter;
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<UUID, Long> missing = new LinkedHashMap<>(16, 0.75f, true);
+    
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public OfflinePlayerDataCache(int maxSize, long expireAfter, long negativeExpireAfter) {
+        this.maxSize = Math.max(1, maxSize);
+        this.expireAfter = expireAfter;
+        this.negativeExpireAfter = negativeExpireAfter;
+    }
+    
+    /**
+     * Cached data of a player, or null if it is not cached or has expired
+     */
+    public synchronized PlayerData get(UUID playerId) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        
+        if (System.currentTimeMillis() - entry.loadedAt > expireAfter) {
+            entries.remove(playerId);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        
+        hits.incrementAndGet();
+        return entry.data;
+    }
+    
+    public synchronized void put(UUID playerId, PlayerData data) {
+        entries.put(playerId, new Entry(data, System.currentTimeMillis()));
+        missing.remove(playerId);
+        trim(entries);
+    }
+    
+    /**
+     * Whether the player was recently found to have no stored data
+     */
+    public synchronized boolean isKnownMissing(UUID playerId) {
+        Long checkedAt = missing.get(playerId);
+        if (checkedAt == null) {
+            return false;
+        }
+        
+        if (System.currentTimeMillis() - checkedAt > negativeExpireAfter) {
+            missing.remove(playerId);
+            return false;
+        }
+        
+        hits.incrementAndGet();
+        return true;
+    }
+    
+    public synchronized void markMissing(UUID playerId) {
+        missing.put(playerId, System.currentTimeMillis());
+        trim(missing);
+    }
+    
+    /**
+     * Forget everything about a player, called when they join or their data is saved
+     */
+    public synchronized void invalidate(UUID playerId) {
+        entries.remove(playerId);
+        missing.remove(playerId);
+    }
+    
+    /**
+     * Drop expired entries, returning how many were removed
+     */
+    public synchronized int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().loadedAt > expireAfter) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        
+        missing.values().removeIf(checkedAt -> now - checkedAt > negativeExpireAfter);
+        evictions.addAndGet(removed);
+        return removed;
+    }
+    
+    public synchronized void clear() {
+        entries.clear();
+        missing.clear();
+    }
+    
+    private <V> void trim(LinkedHashMap<UUID, V> map) {
+        // Access order puts the least recently used entry first
+        Iterator<Map.Entry<UUID, V>> iterator = map.entrySet().iterator();
+        while (map.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+    
+    // Statistics
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized int getMissingSize() {
+        return missing.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+    
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    public long getEvictions() {
+        return evictions.get();
+    }
+    
+    private static final class Entry {
+        private final PlayerData data;
+        private final long loadedAt;
+        
+        private Entry(PlayerData data, long loadedAt) {
+            this.data = data;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
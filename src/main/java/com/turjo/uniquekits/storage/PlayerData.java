@@ -1,22 +1,59 @@
 package com.turjo.uniquekits.storage;
 
+import com.turjo.uniquekits.kits.KitOrdinals;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PlayerData {
     
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final int[] EMPTY_INTS = new int[0];
+    
     private final UUID playerId;
-    private final Map<String, Long> kitCooldowns = new ConcurrentHashMap<>();
-    private final Map<String, Integer> kitUsages = new ConcurrentHashMap<>();
-    private final Set<String> usedOneTimeKits = new HashSet<>();
+    
+    // Kit state indexed by KitOrdinals; 0 means no cooldown / no usage.
+    // Mutated on the main thread only, other threads read a snapshot().
+    private volatile long[] kitCooldowns = EMPTY_LONGS;
+    private volatile int[] kitUsages = EMPTY_INTS;
+    private final BitSet usedOneTimeKits = new BitSet();
+    
+    // Aggregates kept up to date by putUsage/putCooldown so the stats reads are O(1).
+    // storedCooldowns includes expired entries until the main thread purges them.
+    private volatile int totalKitsUsed;
+    private volatile int mostUsedOrdinal = -1;
+    private volatile int storedCooldowns;
+    private volatile long nextCooldownExpiry = Long.MAX_VALUE;
+    
     private final Map<String, Object> customData = new ConcurrentHashMap<>();
-    private boolean firstJoin = true;
-    private long lastLogin;
-    private long totalPlayTime;
-    private String lastKnownName;
+    private volatile boolean firstJoin = true;
+    private volatile long lastLogin;
+    private volatile long totalPlayTime;
+    private volatile String lastKnownName;
+    
+    // Dirty tracking
+    private final AtomicLong version = new AtomicLong();
+    private volatile long savedVersion;
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private volatile ChangeListener changeListener;
+    
+    /**
+     * Notified the first time the data changes after it was queued for saving,
+     * and on every cooldown, usage and one-time kit change
+     */
+    public interface ChangeListener {
+        void onChange(PlayerData data);
+        
+        default void onCooldownChanged(PlayerData data, String kitId, long expireTime) {}
+        
+        default void onUsageChanged(PlayerData data, String kitId, int count) {}
+        
+        default void onOneTimeKitChanged(PlayerData data, String kitId, boolean used) {}
+    }
     
     public PlayerData(UUID playerId) {
         this.playerId = playerId;
@@ -31,7 +68,7 @@ public class PlayerData {
             ConfigurationSection cooldownSection = config.getConfigurationSection("kit-cooldowns");
             if (cooldownSection != null) {
                 for (String kitId : cooldownSection.getKeys(false)) {
-                    data.kitCooldowns.put(kitId, cooldownSection.getLong(kitId));
+                    data.putCooldown(KitOrdinals.of(kitId), cooldownSection.getLong(kitId));
                 }
             }
         }
@@ -41,13 +78,15 @@ public class PlayerData {
             ConfigurationSection usageSection = config.getConfigurationSection("kit-usages");
             if (usageSection != null) {
                 for (String kitId : usageSection.getKeys(false)) {
-                    data.kitUsages.put(kitId, usageSection.getInt(kitId));
+                    data.putUsage(KitOrdinals.of(kitId), usageSection.getInt(kitId));
                 }
             }
         }
         
         // Load used one-time kits
-        data.usedOneTimeKits.addAll(config.getStringList("used-one-time-kits"));
+        for (String kitId : config.getStringList("used-one-time-kits")) {
+            data.usedOneTimeKits.set(KitOrdinals.of(kitId));
+        }
         
         // Load custom data
         if (config.contains("custom-data")) {
@@ -69,67 +108,52 @@ public class PlayerData {
     }
     
     public void saveToConfig(FileConfiguration config) {
-        // Save kit cooldowns
-        if (!kitCooldowns.isEmpty()) {
-            ConfigurationSection cooldownSection = config.createSection("kit-cooldowns");
-            for (Map.Entry<String, Long> entry : kitCooldowns.entrySet()) {
-                cooldownSection.set(entry.getKey(), entry.getValue());
-            }
-        }
-        
-        // Save kit usages
-        if (!kitUsages.isEmpty()) {
-            ConfigurationSection usageSection = config.createSection("kit-usages");
-            for (Map.Entry<String, Integer> entry : kitUsages.entrySet()) {
-                usageSection.set(entry.getKey(), entry.getValue());
-            }
-        }
-        
-        // Save used one-time kits
-        if (!usedOneTimeKits.isEmpty()) {
-            config.set("used-one-time-kits", new ArrayList<>(usedOneTimeKits));
-        }
-        
-        // Save custom data
-        if (!customData.isEmpty()) {
-            ConfigurationSection customSection = config.createSection("custom-data");
-            for (Map.Entry<String, Object> entry : customData.entrySet()) {
-                customSection.set(entry.getKey(), entry.getValue());
-            }
-        }
-        
-        // Save other data
-        config.set("first-join", firstJoin);
-        config.set("last-login", lastLogin);
-        config.set("total-play-time", totalPlayTime);
-        config.set("last-known-name", lastKnownName);
+        snapshot().saveToConfig(config);
+    }
+    
+    /**
+     * Immutable copy of the current state for saving off the main thread.
+     * Must be taken on the thread that mutates this data.
+     */
+    public PlayerDataSnapshot snapshot() {
+        return new PlayerDataSnapshot(playerId, version.get(), kitCooldowns.clone(), kitUsages.clone(),
+            (BitSet) usedOneTimeKits.clone(), new HashMap<>(customData), firstJoin, lastLogin, totalPlayTime, lastKnownName);
     }
     
     // Kit cooldown methods
     public void setKitCooldown(String kitId, long expireTime) {
-        if (expireTime <= System.currentTimeMillis()) {
-            kitCooldowns.remove(kitId);
-        } else {
-            kitCooldowns.put(kitId, expireTime);
+        putCooldown(KitOrdinals.of(kitId), expireTime <= System.currentTimeMillis() ? 0 : expireTime);
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onCooldownChanged(this, kitId, expireTime);
         }
     }
     
+    /**
+     * A pure read, safe from any thread; expired entries are dropped by {@link #expireCooldown} and {@link #cleanup}
+     */
     public boolean isKitOnCooldown(String kitId) {
-        Long expireTime = kitCooldowns.get(kitId);
-        if (expireTime == null) {
-            return false;
+        int ordinal = KitOrdinals.find(kitId);
+        long[] cooldowns = kitCooldowns;
+        return ordinal >= 0 && ordinal < cooldowns.length && cooldowns[ordinal] > System.currentTimeMillis();
+    }
+    
+    /**
+     * Drop the kit's cooldown if it has expired. Must run on the main thread.
+     */
+    public void expireCooldown(String kitId) {
+        int ordinal = KitOrdinals.find(kitId);
+        if (ordinal >= 0 && ordinal < kitCooldowns.length && kitCooldowns[ordinal] != 0
+                && kitCooldowns[ordinal] <= System.currentTimeMillis()) {
+            putCooldown(ordinal, 0);
         }
-        
-        if (expireTime <= System.currentTimeMillis()) {
-            kitCooldowns.remove(kitId);
-            return false;
-        }
-        
-        return true;
     }
     
     public long getKitCooldownExpireTime(String kitId) {
-        return kitCooldowns.getOrDefault(kitId, 0L);
+        int ordinal = KitOrdinals.find(kitId);
+        return ordinal >= 0 && ordinal < kitCooldowns.length ? kitCooldowns[ordinal] : 0L;
     }
     
     public long getKitCooldownRemaining(String kitId) {
@@ -140,50 +164,198 @@ public class PlayerData {
         return expireTime - System.currentTimeMillis();
     }
     
+    public Map<String, Long> getAllKitCooldowns() {
+        Map<String, Long> cooldowns = new HashMap<>();
+        for (int ordinal = 0; ordinal < kitCooldowns.length; ordinal++) {
+            if (kitCooldowns[ordinal] != 0) {
+                cooldowns.put(KitOrdinals.idOf(ordinal), kitCooldowns[ordinal]);
+            }
+        }
+        return cooldowns;
+    }
+    
     public void clearKitCooldown(String kitId) {
-        kitCooldowns.remove(kitId);
+        int ordinal = KitOrdinals.find(kitId);
+        if (ordinal < 0 || ordinal >= kitCooldowns.length || kitCooldowns[ordinal] == 0) {
+            return;
+        }
+        putCooldown(ordinal, 0);
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onCooldownChanged(this, kitId, 0);
+        }
     }
     
     public void clearAllCooldowns() {
-        kitCooldowns.clear();
+        for (String kitId : getAllKitCooldowns().keySet()) {
+            clearKitCooldown(kitId);
+        }
     }
     
     // Kit usage methods
     public void addKitUsage(String kitId) {
-        kitUsages.put(kitId, kitUsages.getOrDefault(kitId, 0) + 1);
+        int ordinal = KitOrdinals.of(kitId);
+        int count = (ordinal < kitUsages.length ? kitUsages[ordinal] : 0) + 1;
+        putUsage(ordinal, count);
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onUsageChanged(this, kitId, count);
+        }
     }
     
     public int getKitUsageCount(String kitId) {
-        return kitUsages.getOrDefault(kitId, 0);
+        int ordinal = KitOrdinals.find(kitId);
+        return ordinal >= 0 && ordinal < kitUsages.length ? kitUsages[ordinal] : 0;
     }
     
     public void setKitUsageCount(String kitId, int count) {
-        if (count <= 0) {
-            kitUsages.remove(kitId);
-        } else {
-            kitUsages.put(kitId, count);
+        putUsage(KitOrdinals.of(kitId), Math.max(0, count));
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onUsageChanged(this, kitId, Math.max(0, count));
         }
     }
     
     public Map<String, Integer> getAllKitUsages() {
-        return new HashMap<>(kitUsages);
+        Map<String, Integer> usages = new HashMap<>();
+        for (int ordinal = 0; ordinal < kitUsages.length; ordinal++) {
+            if (kitUsages[ordinal] > 0) {
+                usages.put(KitOrdinals.idOf(ordinal), kitUsages[ordinal]);
+            }
+        }
+        return usages;
     }
     
     // One-time kit methods
     public void markKitAsUsed(String kitId) {
-        usedOneTimeKits.add(kitId);
+        int ordinal = KitOrdinals.of(kitId);
+        if (usedOneTimeKits.get(ordinal)) {
+            return;
+        }
+        usedOneTimeKits.set(ordinal);
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onOneTimeKitChanged(this, kitId, true);
+        }
     }
     
     public boolean hasUsedKit(String kitId) {
-        return usedOneTimeKits.contains(kitId);
+        int ordinal = KitOrdinals.find(kitId);
+        return ordinal >= 0 && usedOneTimeKits.get(ordinal);
     }
     
     public void resetKitUsage(String kitId) {
-        usedOneTimeKits.remove(kitId);
+        int ordinal = KitOrdinals.find(kitId);
+        if (ordinal < 0 || !usedOneTimeKits.get(ordinal)) {
+            return;
+        }
+        usedOneTimeKits.clear(ordinal);
+        markDirty();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onOneTimeKitChanged(this, kitId, false);
+        }
     }
     
     public Set<String> getUsedOneTimeKits() {
-        return new HashSet<>(usedOneTimeKits);
+        Set<String> kits = new HashSet<>();
+        for (int ordinal = usedOneTimeKits.nextSetBit(0); ordinal >= 0; ordinal = usedOneTimeKits.nextSetBit(ordinal + 1)) {
+            kits.add(KitOrdinals.idOf(ordinal));
+        }
+        return kits;
+    }
+    
+    // Array storage
+    private void putCooldown(int ordinal, long expireTime) {
+        if (ordinal >= kitCooldowns.length) {
+            if (expireTime == 0) {
+                return;
+            }
+            kitCooldowns = Arrays.copyOf(kitCooldowns, grownLength(ordinal));
+        }
+        
+        long previous = kitCooldowns[ordinal];
+        kitCooldowns[ordinal] = expireTime;
+        
+        if (previous == 0 && expireTime != 0) {
+            storedCooldowns++;
+        } else if (previous != 0 && expireTime == 0) {
+            storedCooldowns--;
+        }
+        // Only ever lowered here, so it stays a lower bound of the earliest stored expiry
+        if (expireTime != 0 && expireTime < nextCooldownExpiry) {
+            nextCooldownExpiry = expireTime;
+        }
+    }
+    
+    private void putUsage(int ordinal, int count) {
+        if (ordinal >= kitUsages.length) {
+            if (count <= 0) {
+                return;
+            }
+            kitUsages = Arrays.copyOf(kitUsages, grownLength(ordinal));
+        }
+        
+        int previous = kitUsages[ordinal];
+        int updated = Math.max(0, count);
+        kitUsages[ordinal] = updated;
+        totalKitsUsed += updated - previous;
+        
+        int best = mostUsedOrdinal;
+        if (updated > previous) {
+            if (best < 0 || updated > kitUsages[best]) {
+                mostUsedOrdinal = ordinal;
+            }
+        } else if (updated < previous && ordinal == best) {
+            // The leader dropped, another kit may be ahead now
+            mostUsedOrdinal = findMostUsed();
+        }
+    }
+    
+    private int findMostUsed() {
+        int best = -1;
+        for (int ordinal = 0; ordinal < kitUsages.length; ordinal++) {
+            if (kitUsages[ordinal] > 0 && (best < 0 || kitUsages[ordinal] > kitUsages[best])) {
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Zero every expired cooldown and recompute the earliest remaining expiry. Main thread only.
+     */
+    private void purgeExpiredCooldowns(long currentTime) {
+        long earliest = Long.MAX_VALUE;
+        for (int ordinal = 0; ordinal < kitCooldowns.length; ordinal++) {
+            long expireTime = kitCooldowns[ordinal];
+            if (expireTime == 0) {
+                continue;
+            }
+            if (expireTime <= currentTime) {
+                kitCooldowns[ordinal] = 0;
+                storedCooldowns--;
+            } else if (expireTime < earliest) {
+                earliest = expireTime;
+            }
+        }
+        nextCooldownExpiry = earliest;
+    }
+    
+    /**
+     * Grow straight to the current kit count so adding kits does not resize every player repeatedly
+     */
+    private static int grownLength(int ordinal) {
+        return Math.max(ordinal + 1, KitOrdinals.size());
     }
     
     // Custom data methods
@@ -193,6 +365,7 @@ public class PlayerData {
         } else {
             customData.put(key, value);
         }
+        markDirty();
     }
     
     public Object getCustomData(String key) {
@@ -212,7 +385,13 @@ public class PlayerData {
     }
     
     public void removeCustomData(String key) {
-        customData.remove(key);
+        if (customData.remove(key) != null) {
+            markDirty();
+        }
+    }
+    
+    public Map<String, Object> getAllCustomData() {
+        return new HashMap<>(customData);
     }
     
     // Getters and setters
@@ -226,6 +405,7 @@ public class PlayerData {
     
     public void setFirstJoin(boolean firstJoin) {
         this.firstJoin = firstJoin;
+        markDirty();
     }
     
     public long getLastLogin() {
@@ -234,6 +414,7 @@ public class PlayerData {
     
     public void setLastLogin(long lastLogin) {
         this.lastLogin = lastLogin;
+        markDirty();
     }
     
     public long getTotalPlayTime() {
@@ -242,10 +423,12 @@ public class PlayerData {
     
     public void setTotalPlayTime(long totalPlayTime) {
         this.totalPlayTime = totalPlayTime;
+        markDirty();
     }
     
     public void addPlayTime(long time) {
-        this.totalPlayTime += time;
+        this.totalPlayTime = totalPlayTime + time;
+        markDirty();
     }
     
     public String getLastKnownName() {
@@ -254,33 +437,91 @@ public class PlayerData {
     
     public void setLastKnownName(String lastKnownName) {
         this.lastKnownName = lastKnownName;
+        markDirty();
     }
     
     // Statistics methods
     public int getTotalKitsUsed() {
-        return kitUsages.values().stream().mapToInt(Integer::intValue).sum();
+        return totalKitsUsed;
     }
     
     public String getMostUsedKit() {
-        return kitUsages.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
+        int best = mostUsedOrdinal;
+        return best >= 0 ? KitOrdinals.idOf(best) : null;
     }
     
+    /**
+     * A pure read, safe from any thread. Scans the cooldowns only when one of the stored ones
+     * has expired and not been purged yet.
+     */
     public long getActiveCooldowns() {
         long currentTime = System.currentTimeMillis();
-        return kitCooldowns.values().stream()
-            .filter(time -> time > currentTime)
-            .count();
+        if (nextCooldownExpiry > currentTime) {
+            return storedCooldowns;
+        }
+        
+        long[] cooldowns = kitCooldowns;
+        int active = 0;
+        for (long expireTime : cooldowns) {
+            if (expireTime > currentTime) {
+                active++;
+            }
+        }
+        return active;
+    }
+    
+    /**
+     * Lower bound of the earliest stored cooldown expiry, Long.MAX_VALUE when none is stored
+     */
+    long getNextCooldownExpiry() {
+        return nextCooldownExpiry;
+    }
+    
+    // Dirty tracking
+    private void markDirty() {
+        version.incrementAndGet();
+        
+        ChangeListener listener = changeListener;
+        if (listener != null && queued.compareAndSet(false, true)) {
+            listener.onChange(this);
+        }
     }
     
+    public boolean isDirty() {
+        return version.get() != savedVersion;
+    }
+    
+    /**
+     * Version to pass to {@link #markSaved(long)} once a save that started now completes
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
+    public void markSaved(long savedVersion) {
+        if (savedVersion > this.savedVersion) {
+            this.savedVersion = savedVersion;
+        }
+    }
+    
+    /**
+     * Allow the next change to notify the listener again
+     */
+    public void clearQueued() {
+        queued.set(false);
+    }
+    
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+    
+    /**
+     * Drop expired cooldowns. Must run on the main thread.
+     */
     public void cleanup() {
         // Remove expired cooldowns
-        long currentTime = System.currentTimeMillis();
-        kitCooldowns.entrySet().removeIf(entry -> entry.getValue() <= currentTime);
+        purgeExpiredCooldowns(System.currentTimeMillis());
         
-        // Remove zero usage counts
-        kitUsages.entrySet().removeIf(entry -> entry.getValue() <= 0);
+        // Zero usage counts take no space in the usage array
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.turjo.uniquekits.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Versioned binary encoding of {@link PlayerData}. Kit IDs are written once in a string
+ * table and referenced by index, and all numbers are varints, so a typical player fits
+ * in well under a hundred bytes.
+ *
+ * <pre>
+ * magic "UKPD", version byte, flags byte
+ * varlong lastLogin, varlong totalPlayTime, string lastKnownName
+ * varint kitCount, string[kitCount]
+ * varint n, n * (varint kit, varlong expireTime)   cooldowns
+ * varint n, n * (varint kit, varint uses)          usages
+ * varint n, n * (varint kit)                       used one-time kits
+ * string customData (YAML, empty when none)
+ * </pre>
+ */
+public final class PlayerDataCodec {
+    
+    private static final int MAGIC = 0x554B5044; // "UKPD"
+    private static final byte VERSION = 1;
+    private static final int FLAG_FIRST_JOIN = 1;
+    
+    private PlayerDataCodec() {
+    }
+    
+    public static byte[] encode(PlayerDataSnapshot data) {
+        Map<String, Long> cooldowns = data.getKitCooldowns();
+        Map<String, Integer> usages = data.getKitUsages();
+        List<String> oneTimeKits = new ArrayList<>(data.getUsedOneTimeKits());
+        
+        // Build the kit ID string table
+        Map<String, Integer> kitIndex = new HashMap<>();
+        List<String> kitTable = new ArrayList<>();
+        for (String kitId : cooldowns.keySet()) {
+            intern(kitId, kitIndex, kitTable);
+        }
+        for (String kitId : usages.keySet()) {
+            intern(kitId, kitIndex, kitTable);
+        }
+        for (String kitId : oneTimeKits) {
+            intern(kitId, kitIndex, kitTable);
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + kitTable.size() * 16);
+        writeInt(out, MAGIC);
+        out.write(VERSION);
+        out.write(data.isFirstJoin() ? FLAG_FIRST_JOIN : 0);
+        writeVarLong(out, data.getLastLogin());
+        writeVarLong(out, data.getTotalPlayTime());
+        writeString(out, data.getLastKnownName());
+        
+        writeVarLong(out, kitTable.size());
+        for (String kitId : kitTable) {
+            writeString(out, kitId);
+        }
+        
+        writeVarLong(out, cooldowns.size());
+        for (Map.Entry<String, Long> entry : cooldowns.entrySet()) {
+            writeVarLong(out, kitIndex.get(entry.getKey()));
+            writeVarLong(out, entry.getValue());
+        }
+        
+        writeVarLong(out, usages.size());
+        for (Map.Entry<String, Integer> entry : usages.entrySet()) {
+            writeVarLong(out, kitIndex.get(entry.getKey()));
+            writeVarLong(out, entry.getValue());
+        }
+        
+        writeVarLong(out, oneTimeKits.size());
+        for (String kitId : oneTimeKits) {
+            writeVarLong(out, kitIndex.get(kitId));
+        }
+        
+        writeString(out, encodeCustomData(data.getCustomData()));
+        return out.toByteArray();
+    }
+    
+    public static PlayerData decode(UUID playerId, byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a player data file");
+            }
+            
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported player data version " + version);
+            }
+            
+            PlayerData data = new PlayerData(playerId);
+            int flags = in.get();
+            data.setFirstJoin((flags & FLAG_FIRST_JOIN) != 0);
+            data.setLastLogin(readVarLong(in));
+            data.setTotalPlayTime(readVarLong(in));
+            data.setLastKnownName(readString(in));
+            
+            String[] kitTable = new String[readCount(in)];
+            for (int i = 0; i < kitTable.length; i++) {
+                kitTable[i] = readString(in);
+            }
+            
+            int cooldowns = readCount(in);
+            for (int i = 0; i < cooldowns; i++) {
+                String kitId = kitTable[readIndex(in)];
+                data.setKitCooldown(kitId, readVarLong(in));
+            }
+            
+            int usages = readCount(in);
+            for (int i = 0; i < usages; i++) {
+                String kitId = kitTable[readIndex(in)];
+                data.setKitUsageCount(kitId, (int) readVarLong(in));
+            }
+            
+            int oneTimeKits = readCount(in);
+            for (int i = 0; i < oneTimeKits; i++) {
+                data.markKitAsUsed(kitTable[readIndex(in)]);
+            }
+            
+            decodeCustomData(data, readString(in));
+            return data;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated or corrupt player data", e);
+        }
+    }
+    
+    private static void intern(String kitId, Map<String, Integer> kitIndex, List<String> kitTable) {
+        if (!kitIndex.containsKey(kitId)) {
+            kitIndex.put(kitId, kitTable.size());
+            kitTable.add(kitId);
+        }
+    }
+    
+    // Custom data holds arbitrary values, so it keeps its YAML form
+    private static String encodeCustomData(Map<String, Object> customData) {
+        if (customData.isEmpty()) {
+            return "";
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : customData.entrySet()) {
+            config.set(entry.getKey(), entry.getValue());
+        }
+        return config.saveToString();
+    }
+    
+    private static void decodeCustomData(PlayerData data, String serialized) throws IOException {
+        if (serialized.isEmpty()) {
+            return;
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(serialized);
+        } catch (InvalidConfigurationException e) {
+            throw new IOException("Invalid custom data", e);
+        }
+        for (String key : config.getKeys(false)) {
+            data.setCustomData(key, config.get(key));
+        }
+    }
+    
+    // Primitive encoding
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+    
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+    
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    private static int readCount(ByteBuffer in) throws IOException {
+        long count = readVarLong(in);
+        if (count < 0 || count > in.remaining() + 1L) {
+            throw new IOException("Invalid length " + count);
+        }
+        return (int) count;
+    }
+    
+    private static int readIndex(ByteBuffer in) throws IOException {
+        // Out of range indexes fail on the kit table lookup
+        return (int) readVarLong(in);
+    }
+    
+    private static String readString(ByteBuffer in) throws IOException {
+        byte[] bytes = new byte[readCount(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,476 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed write-ahead log of cooldown, usage and one-time kit changes.
+ * Records are written by a single writer thread that fsyncs once per batch (group commit),
+ * so callers on the main thread never wait for the disk. The log is split into segments
+ * that are deleted once the auto-save has persisted every change they contain.
+ */
+public class PlayerDataJournal {
+    
+    private static final byte TYPE_COOLDOWN = 1;
+    private static final byte TYPE_USAGE = 2;
+    private static final byte TYPE_ONE_TIME = 3;
+    
+    private static final int MAX_RECORD_SIZE = 4096;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 1000;
+    
+    private final UniqueKits plugin;
+    private final File folder;
+    private final long groupCommitDelay;
+    private final LinkedBlockingQueue<Object> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong nextSegmentId = new AtomicLong();
+    private volatile boolean running;
+    private volatile boolean failed;
+    private Thread writer;
+    private FileChannel channel;
+    // Size of the current segment after its last fsync; a failed write is cut back to it
+    private long committedSize;
+    private volatile long writerSegmentId;
+    private volatile long retainFrom;
+    
+    // Statistics
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    
+    public PlayerDataJournal(UniqueKits plugin, File folder, long groupCommitDelay) {
+        this.plugin = plugin;
+        this.folder = folder;
+        this.groupCommitDelay = groupCommitDelay;
+    }
+    
+    /**
+     * Apply every intact record left by a previous run to the store, then delete the log.
+     * Returns the number of players restored.
+     */
+    public int replay(PlayerDataStore store, Function<UUID, PlayerData> loader) {
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        
+        List<File> segments = listSegments();
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        
+        Map<UUID, PlayerData> restored = new LinkedHashMap<>();
+        int records = 0;
+        
+        for (File segment : segments) {
+            records += readSegment(segment, restored, loader);
+        }
+        
+        List<PlayerDataSnapshot> snapshots = new ArrayList<>(restored.size());
+        for (PlayerData data : restored.values()) {
+            snapshots.add(data.snapshot());
+        }
+        
+        int saved = store.saveAll(snapshots);
+        if (saved == restored.size()) {
+            deleteSegmentsBefore(Long.MAX_VALUE);
+        } else {
+            plugin.getLogger().severe("§c[PlayerDataJournal] Could not persist replayed data, keeping the journal for the next start");
+        }
+        
+        plugin.getLogger().info("§a[PlayerDataJournal] Replayed " + records + " journal records for " + restored.size() + " players");
+        return saved;
+    }
+    
+    private int readSegment(File segment, Map<UUID, PlayerData> restored, Function<UUID, PlayerData> loader) {
+        int records = 0;
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    plugin.getLogger().warning("§c[PlayerDataJournal] Corrupt record length in " + segment.getName() + ", ignoring the rest of the segment");
+                    break;
+                }
+                
+                byte[] payload = new byte[length];
+                int checksum;
+                try {
+                    in.readFully(payload);
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    plugin.getLogger().warning("§c[PlayerDataJournal] Truncated record at the end of " + segment.getName() + ", ignoring it");
+                    break;
+                }
+                
+                if (checksum != checksum(payload)) {
+                    plugin.getLogger().warning("§c[PlayerDataJournal] Checksum mismatch in " + segment.getName() + ", ignoring the rest of the segment");
+                    break;
+                }
+                
+                applyRecord(ByteBuffer.wrap(payload), restored, loader);
+                records++;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("§c[PlayerDataJournal] Failed to read " + segment.getName() + ": " + e.getMessage());
+        }
+        
+        return records;
+    }
+    
+    private void applyRecord(ByteBuffer buffer, Map<UUID, PlayerData> restored, Function<UUID, PlayerData> loader) {
+        byte type = buffer.get();
+        UUID playerId = new UUID(buffer.getLong(), buffer.getLong());
+        byte[] kitBytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(kitBytes);
+        String kitId = new String(kitBytes, StandardCharsets.UTF_8);
+        long value = buffer.getLong();
+        
+        PlayerData data = restored.computeIfAbsent(playerId, loader);
+        switch (type) {
+            case TYPE_COOLDOWN:
+                data.setKitCooldown(kitId, value);
+                break;
+            case TYPE_USAGE:
+                data.setKitUsageCount(kitId, (int) value);
+                break;
+            case TYPE_ONE_TIME:
+                if (value != 0) {
+                    data.markKitAsUsed(kitId);
+                } else {
+                    data.resetKitUsage(kitId);
+                }
+                break;
+        }
+    }
+    
+    /**
+     * Start a fresh segment and the writer thread
+     */
+    public void open() throws IOException {
+        long lastId = 0;
+        for (File segment : listSegments()) {
+            lastId = Math.max(lastId, segmentId(segment));
+        }
+        
+        nextSegmentId.set(lastId + 1);
+        writerSegmentId = nextSegmentId.get();
+        retainFrom = writerSegmentId;
+        committedSize = 0;
+        channel = openSegment(writerSegmentId);
+        
+        running = true;
+        writer = new Thread(this::runWriter, "UniqueKits-Journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    // Logged mutations. Values are absolute so replaying a record twice is harmless.
+    public void logCooldown(UUID playerId, String kitId, long expireTime) {
+        append(TYPE_COOLDOWN, playerId, kitId, expireTime);
+    }
+    
+    public void logUsage(UUID playerId, String kitId, int count) {
+        append(TYPE_USAGE, playerId, kitId, count);
+    }
+    
+    public void logOneTimeKit(UUID playerId, String kitId, boolean used) {
+        append(TYPE_ONE_TIME, playerId, kitId, used ? 1 : 0);
+    }
+    
+    private void append(byte type, UUID playerId, String kitId, long value) {
+        if (!running || failed) {
+            return;
+        }
+        
+        byte[] kitBytes = kitId.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 16 + 2 + kitBytes.length + 8;
+        if (length > MAX_RECORD_SIZE) {
+            return;
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length + 4);
+        buffer.putInt(length);
+        buffer.put(type);
+        buffer.putLong(playerId.getMostSignificantBits());
+        buffer.putLong(playerId.getLeastSignificantBits());
+        buffer.putShort((short) kitBytes.length);
+        buffer.put(kitBytes);
+        buffer.putLong(value);
+        buffer.putInt(checksum(buffer.array(), 4, length));
+        
+        pending.add(buffer.array());
+    }
+    
+    /**
+     * Called when an auto-save cycle completed without failures. Every change logged before the
+     * previous checkpoint has now been saved, so those segments can go, and a new segment starts.
+     */
+    public void checkpoint() {
+        if (!running) {
+            return;
+        }
+        
+        deleteSegmentsBefore(Math.min(retainFrom, writerSegmentId));
+        
+        long newSegmentId = nextSegmentId.incrementAndGet();
+        if (failed) {
+            // Nothing writes any more; the segments left behind go once their changes are saved
+            writerSegmentId = newSegmentId;
+        } else {
+            pending.add(new Rotation(newSegmentId));
+        }
+        retainFrom = newSegmentId;
+    }
+    
+    /**
+     * Whether writing failed for good; changes are then only persisted by saving the players
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+    
+    /**
+     * Stop the writer after it has committed everything queued. When all data was saved,
+     * the log is truncated since it holds nothing that is not already persisted.
+     */
+    public void close(boolean truncate) {
+        running = false;
+        
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        
+        closeChannel();
+        
+        if (truncate) {
+            deleteSegmentsBefore(Long.MAX_VALUE);
+        }
+    }
+    
+    private void runWriter() {
+        // Entries not yet fsynced; a failed batch stays here and is written again
+        List<Object> batch = new ArrayList<>();
+        int failures = 0;
+        
+        while ((running || !pending.isEmpty() || !batch.isEmpty()) && !failed) {
+            try {
+                if (batch.isEmpty()) {
+                    Object first = pending.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    
+                    // Give concurrent appends a moment to join this commit
+                    if (groupCommitDelay > 0 && running) {
+                        Thread.sleep(groupCommitDelay);
+                    }
+                    batch.add(first);
+                }
+                
+                pending.drainTo(batch);
+                writeBatch(batch);
+                failures = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                // Reopened and cut back to the last commit before the next attempt
+                closeChannel();
+                failures++;
+                
+                if (failures >= MAX_WRITE_ATTEMPTS) {
+                    fail(batch, e);
+                    break;
+                }
+                
+                plugin.getLogger().severe("§c[PlayerDataJournal] Failed to write journal, retrying: " + e);
+                try {
+                    Thread.sleep(RETRY_DELAY * failures);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Give up on the journal: stop queueing records so nothing piles up, and leave the unsaved
+     * changes to the player saves
+     */
+    private void fail(List<Object> batch, Exception cause) {
+        failed = true;
+        int dropped = 0;
+        for (Object entry : batch) {
+            if (!(entry instanceof Rotation)) {
+                dropped++;
+            }
+        }
+        dropped += pending.size();
+        batch.clear();
+        pending.clear();
+        
+        plugin.getLogger().severe("§c[PlayerDataJournal] Journal disabled after " + MAX_WRITE_ATTEMPTS + " failed writes ("
+            + cause + "), " + dropped + " records were not logged. Changes are only kept by saving player data until the next restart.");
+    }
+    
+    /**
+     * Write and fsync {@code batch}, removing every entry that reached the disk. On failure the
+     * entries after the last fsync stay in the batch.
+     */
+    private void writeBatch(List<Object> batch) throws IOException {
+        if (channel == null) {
+            reopenSegment();
+        }
+        
+        int durable = 0;
+        int records = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Object entry = batch.get(i);
+                if (entry instanceof Rotation) {
+                    channel.force(false);
+                    recordsWritten.addAndGet(records);
+                    records = 0;
+                    
+                    closeChannel();
+                    writerSegmentId = ((Rotation) entry).segmentId;
+                    committedSize = 0;
+                    durable = i + 1;
+                    channel = openSegment(writerSegmentId);
+                    continue;
+                }
+                
+                ByteBuffer buffer = ByteBuffer.wrap((byte[]) entry);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                records++;
+            }
+            
+            if (records > 0) {
+                channel.force(false);
+                recordsWritten.addAndGet(records);
+                commits.incrementAndGet();
+            }
+            committedSize = channel.size();
+            durable = batch.size();
+        } finally {
+            batch.subList(0, durable).clear();
+        }
+    }
+    
+    private void reopenSegment() throws IOException {
+        FileChannel reopened = openSegment(writerSegmentId);
+        channel = reopened;
+        // Drop a torn record left by the failed write; the batch writes it again
+        reopened.truncate(committedSize);
+    }
+    
+    private FileChannel openSegment(long segmentId) throws IOException {
+        File file = new File(folder, SEGMENT_PREFIX + segmentId + SEGMENT_SUFFIX);
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("§c[PlayerDataJournal] Failed to close journal segment: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+    
+    private List<File> listSegments() {
+        List<File> segments = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                if (segmentId(file) >= 0) {
+                    segments.add(file);
+                }
+            }
+        }
+        
+        segments.sort((a, b) -> Long.compare(segmentId(a), segmentId(b)));
+        return segments;
+    }
+    
+    private void deleteSegmentsBefore(long segmentId) {
+        for (File segment : listSegments()) {
+            if (segmentId(segment) < segmentId && !segment.delete()) {
+                plugin.getLogger().warning("§c[PlayerDataJournal] Could not delete " + segment.getName());
+            }
+        }
+    }
+    
+    private static long segmentId(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private static int checksum(byte[] data) {
+        return checksum(data, 0, data.length);
+    }
+    
+    private static int checksum(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+    
+    // Statistics
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+    
+    public long getCommits() {
+        return commits.get();
+    }
+    
+    private static final class Rotation {
+        private final long segmentId;
+        
+        private Rotation(long segmentId) {
+            this.segmentId = segmentId;
+        }
+    }
+}
@@ -2,29 +2,130 @@ package com.turjo.uniquekits.storage;
 
 import com.turjo.uniquekits.UniqueKits;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PlayerDataManager {
     
     private final UniqueKits plugin;
     private final Map<UUID, PlayerData> playerDataCache = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingPreload> pendingPreloads = new ConcurrentHashMap<>();
+    
+    // Read-only data of players who are not online, for placeholder lookups
+    private final OfflinePlayerDataCache offlineCache;
     private final File playerDataFolder;
+    private PlayerDataStore store;
+    private PlayerDataStore legacyStore;
+    
+    // Write-behind queue of players changed since their last save, flushed slot by slot
+    private final AutoSaveScheduler autoSaveScheduler;
+    private final PlayerData.ChangeListener changeListener = new CacheChangeListener();
+    private final AtomicBoolean saveFailed = new AtomicBoolean();
+    
+    // Write-ahead log of cooldown and usage changes between saves
+    private PlayerDataJournal journal;
+    
+    // Preload statistics
+    private final AtomicLong preloadHits = new AtomicLong();
+    private final AtomicLong preloadExpired = new AtomicLong();
+    private final AtomicLong syncLoads = new AtomicLong();
     
     public PlayerDataManager(UniqueKits plugin) {
         this.plugin = plugin;
         this.playerDataFolder = new File(plugin.getDataFolder(), "playerdata");
         
-        if (!playerDataFolder.exists()) {
-            playerDataFolder.mkdirs();
+        setupStore();
+        setupJournal();
+        
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        this.offlineCache = new OfflinePlayerDataCache(
+            config.getInt("performance.offline-cache.max-size", 500),
+            config.getLong("performance.offline-cache.expire-after", 300) * 1000L,
+            config.getLong("performance.offline-cache.missing-expire-after", 600) * 1000L);
+        
+        this.autoSaveScheduler = new AutoSaveScheduler(plugin, this, getAutoSaveIntervalTicks() / getAutoSaveSliceTicks());
+        
+        plugin.getLogger().info("§a[PlayerDataManager] Initialized successfully with " + store.getName() + " storage!");
+    }
+    
+    private void setupStore() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        PlayerDataStore fileStore = createFileStore(config);
+        
+        if (config.getBoolean("settings.database.enabled", false)) {
+            String type = config.getString("settings.database.type", "SQLITE").toUpperCase();
+            
+            if (type.equals("SQLITE")) {
+                File databaseFile = new File(plugin.getDataFolder(), config.getString("settings.database.database", "uniquekits") + ".db");
+                SqlitePlayerDataStore sqliteStore = new SqlitePlayerDataStore(plugin, databaseFile,
+                    config.getString("settings.database.table-prefix", "uk_"));
+                
+                try {
+                    sqliteStore.init();
+                    this.store = sqliteStore;
+                    
+                    // Players not yet in the database are read from their old player file
+                    if (playerDataFolder.isDirectory()) {
+                        this.legacyStore = fileStore;
+                    }
+                    return;
+                } catch (Exception e) {
+                    plugin.getLogger().severe("§c[PlayerDataManager] Could not open SQLite database, falling back to " + fileStore.getName() + ": " + e.getMessage());
+                    sqliteStore.close();
+                }
+            } else {
+                plugin.getLogger().warning("§c[PlayerDataManager] Database type '" + type + "' is not supported yet, using " + fileStore.getName() + " storage");
+            }
         }
         
-        plugin.getLogger().info("§a[PlayerDataManager] Initialized successfully!");
+        try {
+            fileStore.init();
+        } catch (Exception e) {
+            plugin.getLogger().severe("§c[PlayerDataManager] Could not prepare the playerdata folder: " + e.getMessage());
+        }
+        this.store = fileStore;
+    }
+    
+    private PlayerDataStore createFileStore(FileConfiguration config) {
+        String format = config.getString("settings.storage-format", "BINARY").toUpperCase();
+        if (format.equals("YAML")) {
+            return new YamlPlayerDataStore(plugin, playerDataFolder);
+        }
+        
+        if (!format.equals("BINARY")) {
+            plugin.getLogger().warning("§c[PlayerDataManager] Unknown storage format '" + format + "', using BINARY");
+        }
+        return new BinaryPlayerDataStore(plugin, playerDataFolder);
+    }
+    
+    private void setupJournal() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        if (!config.getBoolean("performance.journal.enabled", true)) {
+            return;
+        }
+        
+        PlayerDataJournal journal = new PlayerDataJournal(plugin, new File(plugin.getDataFolder(), "journal"),
+            config.getLong("performance.journal.group-commit-delay", 5));
+        
+        // Restore changes that were not saved before the last crash
+        journal.replay(store, this::loadPlayerData);
+        
+        try {
+            journal.open();
+            this.journal = journal;
+        } catch (Exception e) {
+            plugin.getLogger().severe("§c[PlayerDataManager] Could not open the player data journal: " + e.getMessage());
+        }
     }
     
     public PlayerData getPlayerData(UUID playerId) {
@@ -34,75 +135,427 @@ public class PlayerDataManager {
             return data;
         }
         
-        // Load from file
-        data = loadPlayerData(playerId);
-        playerDataCache.put(playerId, data);
+        // Hand over data preloaded during AsyncPlayerPreLoginEvent
+        PendingPreload pending = pendingPreloads.remove(playerId);
+        if (pending != null) {
+            if (!pending.isExpired(getPreloadTimeout())) {
+                preloadHits.incrementAndGet();
+                return cachePlayerData(playerId, pending.data);
+            }
+            preloadExpired.incrementAndGet();
+        }
+        
+        // Fallback: load from file on the calling thread
+        syncLoads.incrementAndGet();
+        if (plugin.getConfigManager().getConfig().getBoolean("settings.debug", false)) {
+            plugin.getLogger().info("§e[PlayerDataManager] Synchronous load for " + playerId + " (no usable preload)");
+        }
+        
+        return cachePlayerData(playerId, loadPlayerData(playerId));
+    }
+    
+    private PlayerData cachePlayerData(UUID playerId, PlayerData data) {
+        PlayerData existing = playerDataCache.putIfAbsent(playerId, data);
+        if (existing != null) {
+            return existing;
+        }
+        
+        // The online copy is authoritative from now on
+        offlineCache.invalidate(playerId);
+        data.setChangeListener(changeListener);
         
+        if (plugin.getCooldownNotifier() != null) {
+            plugin.getCooldownNotifier().scheduleAll(data);
+        }
         return data;
     }
     
-    private PlayerData loadPlayerData(UUID playerId) {
-        File playerFile = new File(playerDataFolder, playerId.toString() + ".yml");
+    /**
+     * Read-only data for a player who may be offline, without pinning it in the online cache.
+     * Returns null if the player has no stored data. Changes made to the returned data are not saved.
+     */
+    public PlayerData getOfflinePlayerData(UUID playerId) {
+        PlayerData data = playerDataCache.get(playerId);
+        if (data != null) {
+            return data;
+        }
         
-        if (!playerFile.exists()) {
-            return new PlayerData(playerId);
+        data = offlineCache.get(playerId);
+        if (data != null || offlineCache.isKnownMissing(playerId)) {
+            return data;
+        }
+        
+        try {
+            data = readPlayerData(playerId);
+        } catch (Exception e) {
+            plugin.getLogger().warning("§c[PlayerDataManager] Failed to load data for " + playerId + ": " + e.getMessage());
+            return null;
+        }
+        
+        if (data == null) {
+            offlineCache.markMissing(playerId);
+        } else {
+            offlineCache.put(playerId, data);
+        }
+        return data;
+    }
+    
+    /**
+     * Load player data ahead of the join so the main thread finds it ready.
+     * Must be called off the main thread (AsyncPlayerPreLoginEvent).
+     */
+    public void preloadPlayerData(UUID playerId) {
+        if (playerDataCache.containsKey(playerId)) {
+            return;
         }
         
+        PlayerData data = loadPlayerData(playerId);
+        pendingPreloads.put(playerId, new PendingPreload(data));
+    }
+    
+    /**
+     * Drop a preload whose login was denied after it was loaded
+     */
+    public void discardPreload(UUID playerId) {
+        pendingPreloads.remove(playerId);
+    }
+    
+    private void purgeExpiredPreloads() {
+        long timeout = getPreloadTimeout();
+        pendingPreloads.values().removeIf(pending -> {
+            if (pending.isExpired(timeout)) {
+                preloadExpired.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    private long getPreloadTimeout() {
+        return plugin.getConfigManager().getConfig().getLong("performance.preload-timeout", 30) * 1000L;
+    }
+    
+    private PlayerData loadPlayerData(UUID playerId) {
         try {
-            FileConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-            return PlayerData.fromConfig(playerId, config);
+            PlayerData data = readPlayerData(playerId);
+            return data != null ? data : new PlayerData(playerId);
         } catch (Exception e) {
             plugin.getLogger().warning("§c[PlayerDataManager] Failed to load data for " + playerId + ": " + e.getMessage());
             return new PlayerData(playerId);
         }
     }
     
+    /**
+     * Stored data of a player, or null if nothing is stored. Safe to call off the main thread.
+     */
+    public PlayerData readPlayerData(UUID playerId) throws Exception {
+        PlayerData data = store.load(playerId);
+        if (data == null && legacyStore != null) {
+            data = legacyStore.load(playerId);
+        }
+        
+        if (data != null) {
+            // Freshly loaded data matches what is stored
+            data.markSaved(data.getVersion());
+        }
+        return data;
+    }
+    
+    /**
+     * Every player with stored data, including players still only in their old player file
+     */
+    public List<UUID> listStoredPlayers() throws Exception {
+        Set<UUID> players = new LinkedHashSet<>(store.listPlayers());
+        if (legacyStore != null) {
+            players.addAll(legacyStore.listPlayers());
+        }
+        return new ArrayList<>(players);
+    }
+    
     public void savePlayerData(UUID playerId) {
         PlayerData data = playerDataCache.get(playerId);
         if (data == null) {
             return;
         }
         
-        File playerFile = new File(playerDataFolder, playerId.toString() + ".yml");
-        
-        try {
-            FileConfiguration config = new YamlConfiguration();
-            data.saveToConfig(config);
-            config.save(playerFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("§c[PlayerDataManager] Failed to save data for " + playerId + ": " + e.getMessage());
-        }
+        flushPlayerData(List.of(data));
     }
     
     public void saveAllPlayerData() {
         plugin.getLogger().info("§a[PlayerDataManager] Saving all player data...");
         
-        for (UUID playerId : playerDataCache.keySet()) {
-            savePlayerData(playerId);
+        int saved = flushPlayerData(playerDataCache.values());
+        
+        plugin.getLogger().info("§a[PlayerDataManager] Saved data for " + saved + " changed players (" + playerDataCache.size() + " cached)");
+    }
+    
+    /**
+     * Snapshot the queued players that are still cached and dirty. Must run on the main thread.
+     */
+    SaveBatch prepareQueued(Collection<UUID> queued) {
+        List<PlayerData> changed = new ArrayList<>(queued.size());
+        for (UUID playerId : queued) {
+            PlayerData data = playerDataCache.get(playerId);
+            if (data != null) {
+                changed.add(data);
+            }
+        }
+        
+        return prepareSave(changed);
+    }
+    
+    /**
+     * Snapshot the dirty players among the given ones. Must run on the main thread.
+     */
+    private SaveBatch prepareSave(Collection<PlayerData> candidates) {
+        SaveBatch batch = new SaveBatch();
+        
+        for (PlayerData data : candidates) {
+            if (!data.isDirty()) {
+                continue;
+            }
+            
+            // Changes made from here on queue the player again
+            data.clearQueued();
+            batch.players.add(data);
+            batch.snapshots.add(data.snapshot());
+        }
+        
+        return batch;
+    }
+    
+    /**
+     * Write a prepared batch, returning how many players were written. Safe to call off the main thread.
+     */
+    int writeBatch(SaveBatch batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        int saved = store.saveAll(batch.snapshots);
+        if (saved == batch.size()) {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.players.get(i).markSaved(batch.snapshots.get(i).getVersion());
+            }
+        } else {
+            // Retry the whole batch on the next cycle
+            saveFailed.set(true);
+            for (PlayerData data : batch.players) {
+                autoSaveScheduler.enqueue(data.getPlayerId());
+            }
+        }
+        
+        return saved;
+    }
+    
+    /**
+     * Save the dirty players among the given ones on the calling thread, returning how many were written
+     */
+    private int flushPlayerData(Collection<PlayerData> candidates) {
+        return writeBatch(prepareSave(candidates));
+    }
+    
+    /**
+     * Final save of every dirty player. File stores write in parallel within a deadline,
+     * stores with a single connection write everything in one batch.
+     */
+    private void flushOnShutdown() {
+        SaveBatch batch = prepareSave(playerDataCache.values());
+        if (batch.isEmpty()) {
+            plugin.getLogger().info("§a[PlayerDataManager] No unsaved player data (" + playerDataCache.size() + " cached)");
+            return;
+        }
+        
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        int threads = config.getInt("performance.shutdown-flush.threads", 4);
+        
+        if (threads <= 1 || batch.size() == 1 || !store.supportsConcurrentWrites()) {
+            long start = System.currentTimeMillis();
+            int saved = writeBatch(batch);
+            plugin.getLogger().info("§a[PlayerDataManager] Saved " + saved + "/" + batch.size() + " players in "
+                + (System.currentTimeMillis() - start) + "ms");
+            return;
+        }
+        
+        ShutdownFlusher flusher = new ShutdownFlusher(plugin, store, threads,
+            config.getLong("performance.shutdown-flush.timeout", 10) * 1000L,
+            config.getBoolean("performance.shutdown-flush.sequential-fallback", true));
+        flusher.flush(batch.players, batch.snapshots);
+    }
+    
+    /**
+     * Convert all remaining YAML player files to the binary format. Cached players are
+     * skipped since their next save migrates them. Returns -1 if binary storage is not in use.
+     */
+    public int migratePlayerData() {
+        if (!(store instanceof BinaryPlayerDataStore)) {
+            return -1;
+        }
+        
+        return ((BinaryPlayerDataStore) store).migrateAll(playerDataCache::containsKey);
+    }
+    
+    /**
+     * Save everything and release the storage backend
+     */
+    public void shutdown() {
+        autoSaveScheduler.stop();
+        flushOnShutdown();
+        
+        if (journal != null) {
+            // Keep the journal if anything could not be saved
+            boolean allSaved = playerDataCache.values().stream().noneMatch(PlayerData::isDirty);
+            journal.close(allSaved);
         }
         
-        plugin.getLogger().info("§a[PlayerDataManager] Saved data for " + playerDataCache.size() + " players");
+        store.close();
+    }
+    
+    /**
+     * Called by the auto-save scheduler after every slot has been visited once
+     */
+    void onAutoSaveCycleComplete() {
+        purgeExpiredPreloads();
+        offlineCache.purgeExpired();
+        
+        if (!saveFailed.getAndSet(false) && journal != null) {
+            journal.checkpoint();
+        }
+    }
+    
+    public PlayerDataStore getStore() {
+        return store;
     }
     
     public void unloadPlayerData(UUID playerId) {
         savePlayerData(playerId);
-        playerDataCache.remove(playerId);
+        
+        PlayerData data = playerDataCache.remove(playerId);
+        if (data != null) {
+            data.setChangeListener(null);
+            
+            // Keep the saved data around for placeholder lookups of the now offline player
+            if (!data.isDirty()) {
+                offlineCache.put(playerId, data);
+            }
+        }
     }
     
     public void clearCache() {
         saveAllPlayerData();
         playerDataCache.clear();
+        offlineCache.clear();
         plugin.getLogger().info("§a[PlayerDataManager] Cache cleared!");
     }
     
     // Auto-save task
     public void startAutoSaveTask() {
-        int interval = plugin.getConfigManager().getConfig().getInt("performance.auto-save-interval", 5) * 60 * 20; // Convert minutes to ticks
+        int interval = getAutoSaveIntervalTicks();
+        autoSaveScheduler.start(getAutoSaveSliceTicks());
+        
+        plugin.getLogger().info("§a[PlayerDataManager] Auto-save task started with interval: " + (interval / 20 / 60)
+            + " minutes, spread over " + autoSaveScheduler.getSlotCount() + " slices");
+    }
+    
+    private int getAutoSaveIntervalTicks() {
+        return plugin.getConfigManager().getConfig().getInt("performance.auto-save-interval", 5) * 60 * 20; // Convert minutes to ticks
+    }
+    
+    private int getAutoSaveSliceTicks() {
+        return Math.max(1, plugin.getConfigManager().getConfig().getInt("performance.auto-save-slice-ticks", 20));
+    }
+    
+    public AutoSaveScheduler getAutoSaveScheduler() {
+        return autoSaveScheduler;
+    }
+    
+    public OfflinePlayerDataCache getOfflineCache() {
+        return offlineCache;
+    }
+    
+    public PlayerDataJournal getJournal() {
+        return journal;
+    }
+    
+    // Preload statistics
+    public long getPreloadHits() {
+        return preloadHits.get();
+    }
+    
+    public long getPreloadExpired() {
+        return preloadExpired.get();
+    }
+    
+    public long getSyncLoads() {
+        return syncLoads.get();
+    }
+    
+    public int getPendingPreloadCount() {
+        return pendingPreloads.size();
+    }
+    
+    /**
+     * Players to save together with the snapshots taken of them
+     */
+    static final class SaveBatch {
+        private final List<PlayerData> players = new ArrayList<>();
+        private final List<PlayerDataSnapshot> snapshots = new ArrayList<>();
+        
+        boolean isEmpty() {
+            return players.isEmpty();
+        }
+        
+        int size() {
+            return players.size();
+        }
+    }
+    
+    private final class CacheChangeListener implements PlayerData.ChangeListener {
+        
+        @Override
+        public void onChange(PlayerData data) {
+            autoSaveScheduler.enqueue(data.getPlayerId());
+        }
         
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            saveAllPlayerData();
-        }, interval, interval);
+        @Override
+        public void onCooldownChanged(PlayerData data, String kitId, long expireTime) {
+            if (journal != null) {
+                journal.logCooldown(data.getPlayerId(), kitId, expireTime);
+            }
+            if (plugin.getCooldownNotifier() != null) {
+                plugin.getCooldownNotifier().schedule(data.getPlayerId(), kitId, expireTime);
+            }
+        }
+        
+        @Override
+        public void onUsageChanged(PlayerData data, String kitId, int count) {
+            if (journal != null) {
+                journal.logUsage(data.getPlayerId(), kitId, count);
+            }
+            if (plugin.getLeaderboardManager() != null) {
+                plugin.getLeaderboardManager().update(data, kitId, count);
+            }
+        }
+        
+        @Override
+        public void onOneTimeKitChanged(PlayerData data, String kitId, boolean used) {
+            if (journal != null) {
+                journal.logOneTimeKit(data.getPlayerId(), kitId, used);
+            }
+        }
+    }
+    
+    private static final class PendingPreload {
+        private final PlayerData data;
+        private final long loadedAt;
         
-        plugin.getLogger().info("§a[PlayerDataManager] Auto-save task started with interval: " + (interval / 20 / 60) + " minutes");
+        private PendingPreload(PlayerData data) {
+            this.data = data;
+            this.loadedAt = System.currentTimeMillis();
+        }
+        
+        private boolean isExpired(long timeout) {
+            return System.currentTimeMillis() - loadedAt > timeout;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.kits.KitOrdinals;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a {@link PlayerData} taken on the main thread and handed to the
+ * storage backends, so a save running on another thread never sees a half-applied change.
+ * Taking one only clones the primitive kit arrays; kit IDs are resolved when a store reads them.
+ */
+public final class PlayerDataSnapshot {
+    
+    private final UUID playerId;
+    private final long version;
+    private final long[] kitCooldowns;
+    private final int[] kitUsages;
+    private final BitSet usedOneTimeKits;
+    private final Map<String, Object> customData;
+    private final boolean firstJoin;
+    private final long lastLogin;
+    private final long totalPlayTime;
+    private final String lastKnownName;
+    
+    PlayerDataSnapshot(UUID playerId, long version, long[] kitCooldowns, int[] kitUsages, BitSet usedOneTimeKits,
+                       Map<String, Object> customData, boolean firstJoin, long lastLogin, long totalPlayTime, String lastKnownName) {
+        this.playerId = playerId;
+        this.version = version;
+        this.kitCooldowns = kitCooldowns;
+        this.kitUsages = kitUsages;
+        this.usedOneTimeKits = usedOneTimeKits;
+        this.customData = customData;
+        this.firstJoin = firstJoin;
+        this.lastLogin = lastLogin;
+        this.totalPlayTime = totalPlayTime;
+        this.lastKnownName = lastKnownName;
+    }
+    
+    public UUID getPlayerId() {
+        return playerId;
+    }
+    
+    /**
+     * Version of the data when the snapshot was taken, for {@link PlayerData#markSaved(long)}
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public Map<String, Long> getKitCooldowns() {
+        Map<String, Long> cooldowns = new HashMap<>();
+        for (int ordinal = 0; ordinal < kitCooldowns.length; ordinal++) {
+            if (kitCooldowns[ordinal] != 0) {
+                cooldowns.put(KitOrdinals.idOf(ordinal), kitCooldowns[ordinal]);
+            }
+        }
+        return cooldowns;
+    }
+    
+    public Map<String, Integer> getKitUsages() {
+        Map<String, Integer> usages = new HashMap<>();
+        for (int ordinal = 0; ordinal < kitUsages.length; ordinal++) {
+            if (kitUsages[ordinal] > 0) {
+                usages.put(KitOrdinals.idOf(ordinal), kitUsages[ordinal]);
+            }
+        }
+        return usages;
+    }
+    
+    public Set<String> getUsedOneTimeKits() {
+        Set<String> kits = new HashSet<>();
+        for (int ordinal = usedOneTimeKits.nextSetBit(0); ordinal >= 0; ordinal = usedOneTimeKits.nextSetBit(ordinal + 1)) {
+            kits.add(KitOrdinals.idOf(ordinal));
+        }
+        return kits;
+    }
+    
+    public Map<String, Object> getCustomData() {
+        return Collections.unmodifiableMap(customData);
+    }
+    
+    public boolean isFirstJoin() {
+        return firstJoin;
+    }
+    
+    public long getLastLogin() {
+        return lastLogin;
+    }
+    
+    public long getTotalPlayTime() {
+        return totalPlayTime;
+    }
+    
+    public String getLastKnownName() {
+        return lastKnownName;
+    }
+    
+    public void saveToConfig(FileConfiguration config) {
+        // Save kit cooldowns
+        Map<String, Long> cooldowns = getKitCooldowns();
+        if (!cooldowns.isEmpty()) {
+            ConfigurationSection cooldownSection = config.createSection("kit-cooldowns");
+            for (Map.Entry<String, Long> entry : cooldowns.entrySet()) {
+                cooldownSection.set(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        // Save kit usages
+        Map<String, Integer> usages = getKitUsages();
+        if (!usages.isEmpty()) {
+            ConfigurationSection usageSection = config.createSection("kit-usages");
+            for (Map.Entry<String, Integer> entry : usages.entrySet()) {
+                usageSection.set(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        // Save used one-time kits
+        Set<String> oneTimeKits = getUsedOneTimeKits();
+        if (!oneTimeKits.isEmpty()) {
+            config.set("used-one-time-kits", new ArrayList<>(oneTimeKits));
+        }
+        
+        // Save custom data
+        if (!customData.isEmpty()) {
+            ConfigurationSection customSection = config.createSection("custom-data");
+            for (Map.Entry<String, Object> entry : customData.entrySet()) {
+                customSection.set(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        // Save other data
+        config.set("first-join", firstJoin);
+        config.set("last-login", lastLogin);
+        config.set("total-play-time", totalPlayTime);
+        config.set("last-known-name", lastKnownName);
+    }
+}
@@ -0,0 +1,59 @@
+package com.turjo.uniquekits.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence backend for {@link PlayerData}
+ */
+public interface PlayerDataStore {
+    
+    /**
+     * Prepare the backing storage (folders, connections, tables)
+     */
+    void init() throws Exception;
+    
+    /**
+     * Load the stored data of a player, or null if nothing is stored yet
+     */
+    PlayerData load(UUID playerId) throws Exception;
+    
+    /**
+     * Every player that has stored data, used for server-wide scans
+     */
+    List<UUID> listPlayers() throws Exception;
+    
+    /**
+     * Persist a single player, returning false if the write failed.
+     * May be called from any thread; the snapshot never changes underneath it.
+     */
+    boolean save(PlayerDataSnapshot data);
+    
+    /**
+     * Persist several players at once, returning how many were written
+     */
+    int saveAll(Collection<PlayerDataSnapshot> data);
+    
+    /**
+     * Whether different players can be saved from several threads at once
+     */
+    default boolean supportsConcurrentWrites() {
+        return false;
+    }
+    
+    /**
+     * Total bytes written since startup, used for save statistics
+     */
+    long getBytesWritten();
+    
+    /**
+     * Release any resources held by the store
+     */
+    void close();
+    
+    /**
+     * Name used in log messages
+     */
+    String getName();
+}
@@ -0,0 +1,120 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Writes the final save on shutdown across a bounded pool of I/O threads. Whatever the
+ * pool has not finished by the deadline is written sequentially on the calling thread.
+ */
+class ShutdownFlusher {
+    
+    // Per-player write state
+    private static final int PENDING = 0;
+    private static final int WRITING = 1;
+    private static final int SAVED = 2;
+    private static final int FAILED = 3;
+    private static final int TAKEN_OVER = 4;
+    
+    private final UniqueKits plugin;
+    private final PlayerDataStore store;
+    private final int threads;
+    private final long timeoutMillis;
+    private final boolean sequentialFallback;
+    
+    ShutdownFlusher(UniqueKits plugin, PlayerDataStore store, int threads, long timeoutMillis, boolean sequentialFallback) {
+        this.plugin = plugin;
+        this.store = store;
+        this.threads = threads;
+        this.timeoutMillis = timeoutMillis;
+        this.sequentialFallback = sequentialFallback;
+    }
+    
+    /**
+     * Save every snapshot of the batch, returning how many were written
+     */
+    int flush(List<PlayerData> players, List<PlayerDataSnapshot> snapshots) {
+        long start = System.currentTimeMillis();
+        AtomicIntegerArray states = new AtomicIntegerArray(players.size());
+        AtomicInteger threadIds = new AtomicInteger();
+        
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, players.size()), runnable -> {
+            Thread thread = new Thread(runnable, "UniqueKits-Shutdown-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (int i = 0; i < players.size(); i++) {
+            int index = i;
+            pool.execute(() -> {
+                if (states.compareAndSet(index, PENDING, WRITING)) {
+                    states.set(index, write(players.get(index), snapshots.get(index)) ? SAVED : FAILED);
+                }
+            });
+        }
+        
+        pool.shutdown();
+        boolean finished;
+        try {
+            finished = pool.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+        if (!finished) {
+            pool.shutdownNow();
+        }
+        
+        long parallelMillis = System.currentTimeMillis() - start;
+        int parallelSaved = 0;
+        int sequentialSaved = 0;
+        int abandoned = 0;
+        int failed = 0;
+        
+        for (int i = 0; i < players.size(); i++) {
+            if (states.get(i) == SAVED) {
+                parallelSaved++;
+                continue;
+            }
+            
+            // Players still being written by a stuck thread are left alone to avoid two writers on one file
+            boolean takeOver = states.compareAndSet(i, PENDING, TAKEN_OVER) || states.compareAndSet(i, FAILED, TAKEN_OVER);
+            if (!takeOver) {
+                abandoned++;
+            } else if (sequentialFallback && write(players.get(i), snapshots.get(i))) {
+                sequentialSaved++;
+            } else {
+                failed++;
+            }
+        }
+        
+        plugin.getLogger().info("§a[ShutdownFlusher] Saved " + parallelSaved + "/" + players.size() + " players in "
+            + parallelMillis + "ms on " + Math.min(threads, players.size()) + " threads"
+            + (sequentialSaved > 0 ? ", " + sequentialSaved + " more sequentially in " + (System.currentTimeMillis() - start - parallelMillis) + "ms" : ""));
+        
+        if (!finished) {
+            plugin.getLogger().warning("§c[ShutdownFlusher] Parallel flush did not finish within " + timeoutMillis + "ms");
+        }
+        if (abandoned > 0 || failed > 0) {
+            plugin.getLogger().severe("§c[ShutdownFlusher] " + failed + " players failed to save and " + abandoned
+                + " were still being written at the deadline; the journal keeps their latest changes");
+        }
+        
+        return parallelSaved + sequentialSaved;
+    }
+    
+    private boolean write(PlayerData data, PlayerDataSnapshot snapshot) {
+        if (!store.save(snapshot)) {
+            return false;
+        }
+        
+        data.markSaved(snapshot.getVersion());
+        return true;
+    }
+}
@@ -0,0 +1,292 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded SQLite database with cooldowns, usages and one-time kits in normalized tables.
+ * All writes of a save run in a single transaction.
+ */
+public class SqlitePlayerDataStore implements PlayerDataStore {
+    
+    // Approximate size of a uuid key plus a numeric column, for write statistics
+    private static final int ROW_OVERHEAD = 44;
+    
+    private final UniqueKits plugin;
+    private final File databaseFile;
+    private final String prefix;
+    private Connection connection;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    
+    public SqlitePlayerDataStore(UniqueKits plugin, File databaseFile, String prefix) {
+        this.plugin = plugin;
+        this.databaseFile = databaseFile;
+        this.prefix = prefix;
+    }
+    
+    @Override
+    public synchronized void init() throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "players ("
+                + "uuid TEXT PRIMARY KEY, "
+                + "first_join INTEGER NOT NULL, "
+                + "last_login INTEGER NOT NULL, "
+                + "total_play_time INTEGER NOT NULL, "
+                + "last_known_name TEXT, "
+                + "custom_data TEXT)");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "cooldowns ("
+                + "uuid TEXT NOT NULL, "
+                + "kit_id TEXT NOT NULL, "
+                + "expire_time INTEGER NOT NULL, "
+                + "PRIMARY KEY (uuid, kit_id)) WITHOUT ROWID");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "usages ("
+                + "uuid TEXT NOT NULL, "
+                + "kit_id TEXT NOT NULL, "
+                + "uses INTEGER NOT NULL, "
+                + "PRIMARY KEY (uuid, kit_id)) WITHOUT ROWID");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "one_time_kits ("
+                + "uuid TEXT NOT NULL, "
+                + "kit_id TEXT NOT NULL, "
+                + "PRIMARY KEY (uuid, kit_id)) WITHOUT ROWID");
+        }
+    }
+    
+    @Override
+    public synchronized PlayerData load(UUID playerId) throws SQLException {
+        String uuid = playerId.toString();
+        PlayerData data;
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT first_join, last_login, total_play_time, last_known_name, custom_data FROM " + prefix + "players WHERE uuid = ?")) {
+            statement.setString(1, uuid);
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
+                
+                data = new PlayerData(playerId);
+                data.setFirstJoin(result.getInt("first_join") != 0);
+                data.setLastLogin(result.getLong("last_login"));
+                data.setTotalPlayTime(result.getLong("total_play_time"));
+                data.setLastKnownName(result.getString("last_known_name"));
+                loadCustomData(data, result.getString("custom_data"));
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT kit_id, expire_time FROM " + prefix + "cooldowns WHERE uuid = ?")) {
+            statement.setString(1, uuid);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    data.setKitCooldown(result.getString(1), result.getLong(2));
+                }
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT kit_id, uses FROM " + prefix + "usages WHERE uuid = ?")) {
+            statement.setString(1, uuid);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    data.setKitUsageCount(result.getString(1), result.getInt(2));
+                }
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT kit_id FROM " + prefix + "one_time_kits WHERE uuid = ?")) {
+            statement.setString(1, uuid);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    data.markKitAsUsed(result.getString(1));
+                }
+            }
+        }
+        
+        return data;
+    }
+    
+    @Override
+    public synchronized List<UUID> listPlayers() throws SQLException {
+        List<UUID> players = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT uuid FROM " + prefix + "players")) {
+            while (result.next()) {
+                try {
+                    players.add(UUID.fromString(result.getString(1)));
+                } catch (IllegalArgumentException ignored) {
+                    // Malformed key
+                }
+            }
+        }
+        return players;
+    }
+    
+    @Override
+    public boolean save(PlayerDataSnapshot data) {
+        return saveAll(Collections.singletonList(data)) == 1;
+    }
+    
+    @Override
+    public synchronized int saveAll(Collection<PlayerDataSnapshot> data) {
+        if (data.isEmpty()) {
+            return 0;
+        }
+        
+        long payloadBytes = 0;
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement upsertPlayer = connection.prepareStatement(
+                     "INSERT OR REPLACE INTO " + prefix + "players (uuid, first_join, last_login, total_play_time, last_known_name, custom_data) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement deleteCooldowns = connection.prepareStatement("DELETE FROM " + prefix + "cooldowns WHERE uuid = ?");
+                 PreparedStatement deleteUsages = connection.prepareStatement("DELETE FROM " + prefix + "usages WHERE uuid = ?");
+                 PreparedStatement deleteOneTime = connection.prepareStatement("DELETE FROM " + prefix + "one_time_kits WHERE uuid = ?");
+                 PreparedStatement insertCooldown = connection.prepareStatement("INSERT INTO " + prefix + "cooldowns (uuid, kit_id, expire_time) VALUES (?, ?, ?)");
+                 PreparedStatement insertUsage = connection.prepareStatement("INSERT INTO " + prefix + "usages (uuid, kit_id, uses) VALUES (?, ?, ?)");
+                 PreparedStatement insertOneTime = connection.prepareStatement("INSERT INTO " + prefix + "one_time_kits (uuid, kit_id) VALUES (?, ?)")) {
+                
+                for (PlayerDataSnapshot playerData : data) {
+                    String uuid = playerData.getPlayerId().toString();
+                    
+                    upsertPlayer.setString(1, uuid);
+                    upsertPlayer.setInt(2, playerData.isFirstJoin() ? 1 : 0);
+                    upsertPlayer.setLong(3, playerData.getLastLogin());
+                    upsertPlayer.setLong(4, playerData.getTotalPlayTime());
+                    upsertPlayer.setString(5, playerData.getLastKnownName());
+                    String customData = saveCustomData(playerData);
+                    upsertPlayer.setString(6, customData);
+                    upsertPlayer.addBatch();
+                    payloadBytes += ROW_OVERHEAD + (customData != null ? customData.length() : 0);
+                    
+                    deleteCooldowns.setString(1, uuid);
+                    deleteCooldowns.addBatch();
+                    deleteUsages.setString(1, uuid);
+                    deleteUsages.addBatch();
+                    deleteOneTime.setString(1, uuid);
+                    deleteOneTime.addBatch();
+                    
+                    for (Map.Entry<String, Long> entry : playerData.getKitCooldowns().entrySet()) {
+                        insertCooldown.setString(1, uuid);
+                        insertCooldown.setString(2, entry.getKey());
+                        insertCooldown.setLong(3, entry.getValue());
+                        insertCooldown.addBatch();
+                        payloadBytes += ROW_OVERHEAD + entry.getKey().length();
+                    }
+                    
+                    for (Map.Entry<String, Integer> entry : playerData.getKitUsages().entrySet()) {
+                        insertUsage.setString(1, uuid);
+                        insertUsage.setString(2, entry.getKey());
+                        insertUsage.setInt(3, entry.getValue());
+                        insertUsage.addBatch();
+                        payloadBytes += ROW_OVERHEAD + entry.getKey().length();
+                    }
+                    
+                    for (String kitId : playerData.getUsedOneTimeKits()) {
+                        insertOneTime.setString(1, uuid);
+                        insertOneTime.setString(2, kitId);
+                        insertOneTime.addBatch();
+                        payloadBytes += ROW_OVERHEAD + kitId.length();
+                    }
+                }
+                
+                // Upsert the player rows, then clear and re-insert the child rows
+                upsertPlayer.executeBatch();
+                deleteCooldowns.executeBatch();
+                deleteUsages.executeBatch();
+                deleteOneTime.executeBatch();
+                insertCooldown.executeBatch();
+                insertUsage.executeBatch();
+                insertOneTime.executeBatch();
+            }
+            
+            connection.commit();
+            bytesWritten.addAndGet(payloadBytes);
+            return data.size();
+        } catch (SQLException e) {
+            plugin.getLogger().warning("§c[SqlitePlayerDataStore] Failed to save " + data.size() + " players: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {}
+            return 0;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {}
+        }
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("§c[SqlitePlayerDataStore] Failed to close database: " + e.getMessage());
+            }
+            connection = null;
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+    
+    private String saveCustomData(PlayerDataSnapshot data) {
+        Map<String, Object> customData = data.getCustomData();
+        if (customData.isEmpty()) {
+            return null;
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : customData.entrySet()) {
+            config.set(entry.getKey(), entry.getValue());
+        }
+        return config.saveToString();
+    }
+    
+    private void loadCustomData(PlayerData data, String serialized) {
+        if (serialized == null || serialized.isEmpty()) {
+            return;
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(serialized);
+            for (String key : config.getKeys(false)) {
+                data.setCustomData(key, config.get(key));
+            }
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().warning("§c[SqlitePlayerDataStore] Invalid custom data for " + data.getPlayerId() + ": " + e.getMessage());
+        }
+    }
+}
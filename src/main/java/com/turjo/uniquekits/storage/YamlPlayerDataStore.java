@@ -0,0 +1,124 @@
+package com.turjo.uniquekits.storage;
+
+import com.turjo.uniquekits.UniqueKits;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One YAML file per player in the playerdata folder
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+    
+    private final UniqueKits plugin;
+    private final File playerDataFolder;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    
+    public YamlPlayerDataStore(UniqueKits plugin, File playerDataFolder) {
+        this.plugin = plugin;
+        this.playerDataFolder = playerDataFolder;
+    }
+    
+    @Override
+    public void init() {
+        if (!playerDataFolder.exists()) {
+            playerDataFolder.mkdirs();
+        }
+    }
+    
+    @Override
+    public PlayerData load(UUID playerId) {
+        File playerFile = getPlayerFile(playerId);
+        
+        if (!playerFile.exists()) {
+            return null;
+        }
+        
+        FileConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
+        return PlayerData.fromConfig(playerId, config);
+    }
+    
+    @Override
+    public List<UUID> listPlayers() {
+        List<UUID> players = new ArrayList<>();
+        File[] files = playerDataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) {
+            return players;
+        }
+        
+        for (File file : files) {
+            try {
+                players.add(UUID.fromString(file.getName().substring(0, file.getName().length() - ".yml".length())));
+            } catch (IllegalArgumentException ignored) {
+                // Not a player file
+            }
+        }
+        return players;
+    }
+    
+    @Override
+    public boolean save(PlayerDataSnapshot data) {
+        File playerFile = getPlayerFile(data.getPlayerId());
+        
+        try {
+            FileConfiguration config = new YamlConfiguration();
+            data.saveToConfig(config);
+            
+            byte[] bytes = config.saveToString().getBytes(StandardCharsets.UTF_8);
+            Files.write(playerFile.toPath(), bytes);
+            bytesWritten.addAndGet(bytes.length);
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("§c[YamlPlayerDataStore] Failed to save data for " + data.getPlayerId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public int saveAll(Collection<PlayerDataSnapshot> data) {
+        int saved = 0;
+        for (PlayerDataSnapshot playerData : data) {
+            if (save(playerData)) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+    
+    @Override
+    public boolean supportsConcurrentWrites() {
+        return true;
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+    
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+    
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+    
+    public boolean hasData(UUID playerId) {
+        return getPlayerFile(playerId).exists();
+    }
+    
+    private File getPlayerFile(UUID playerId) {
+        return new File(playerDataFolder, playerId.toString() + ".yml");
+    }
+}
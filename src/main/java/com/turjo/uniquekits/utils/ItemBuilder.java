@@ -1,6 +1,8 @@
 package com.turjo.uniquekits.utils;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.Registry;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
@@ -8,11 +10,17 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class ItemBuilder {
     
+    private static final String LEGACY_PREFIX = "LEGACY_";
+    
     private ItemStack itemStack;
     private ItemMeta itemMeta;
     
@@ -155,109 +163,225 @@ public class ItemBuilder {
     }
     
     public static ItemStack fromMap(Map<?, ?> map) {
+        return fromMap(map, null);
+    }
+    
+    /**
+     * Build an item from a config map. The map's schema is checked up front and each schema
+     * goes straight to its parser, so malformed and hand-written items never go through a
+     * failed {@link ItemStack#deserialize}. Counts the schema in {@code stats} when given.
+     */
+    public static ItemStack fromMap(Map<?, ?> map, ItemImportStats stats) {
+        Schema schema = classify(map);
+        if (stats != null) {
+            stats.record(schema);
+        }
+        
+        switch (schema) {
+            case SERIALIZED:
+            case LEGACY:
+                try {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> stringMap = (Map<String, Object>) map;
+                    return ItemStack.deserialize(stringMap);
+                } catch (RuntimeException e) {
+                    // Only reachable through values classify() does not look at
+                    return fromHandWritten(map);
+                }
+            case HAND_WRITTEN:
+                return fromHandWritten(map);
+            default:
+                return new ItemStack(Material.STONE);
+        }
+    }
+    
+    /**
+     * The parser {@link #fromMap} uses for {@code map}
+     */
+    @SuppressWarnings("deprecation")
+    public static Schema classify(Map<?, ?> map) {
+        Object type = map.get("type");
+        if (!(type instanceof String)) {
+            return type == null ? Schema.INVALID : handWrittenOrInvalid(type);
+        }
+        
+        Object meta = map.get("meta");
+        boolean deserializable = (meta == null || meta instanceof ItemMeta)
+            && isNumberOrAbsent(map, "amount") && isNumberOrAbsent(map, "damage");
+        
+        Object version = map.get("v");
+        if (version != null) {
+            // Written by ItemStack#serialize, possibly on an older server that used other names
+            if (deserializable && version instanceof Number && (Lookups.MATERIALS.containsKey(type)
+                    || Bukkit.getUnsafe().getMaterial((String) type, ((Number) version).intValue()) != null)) {
+                return Schema.SERIALIZED;
+            }
+            return handWrittenOrInvalid(type);
+        }
+        
+        // Without a data version Bukkit reads the type as a pre-1.13 name. Modern names win so
+        // hand-written kits skip the legacy conversion.
+        if (materialOf(type.toString()) != null) {
+            return Schema.HAND_WRITTEN;
+        }
+        return deserializable && Lookups.LEGACY_MATERIALS.contains(type) ? Schema.LEGACY : Schema.INVALID;
+    }
+    
+    /**
+     * Cached, exception-free material lookup accepting any case, spaces, dashes and a
+     * {@code minecraft:} prefix. Legacy names are not matched.
+     */
+    public static Material materialOf(String name) {
+        Material material = Lookups.MATERIALS.get(name);
+        return material != null ? material : Lookups.MATERIALS.get(normalize(name));
+    }
+    
+    /**
+     * Cached, exception-free enchantment lookup by key ({@code sharpness}) or Bukkit name ({@code DAMAGE_ALL})
+     */
+    public static Enchantment enchantmentOf(String name) {
+        return Lookups.ENCHANTMENTS.get(normalize(name));
+    }
+    
+    private static Schema handWrittenOrInvalid(Object type) {
+        return materialOf(type.toString()) != null ? Schema.HAND_WRITTEN : Schema.INVALID;
+    }
+    
+    private static boolean isNumberOrAbsent(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null || value instanceof Number;
+    }
+    
+    private static String normalize(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        return normalized.startsWith("MINECRAFT:") ? normalized.substring("MINECRAFT:".length()) : normalized;
+    }
+    
+    private static int toInt(Object value, int def) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value == null) {
+            return def;
+        }
         try {
-            // Try to deserialize the ItemStack
-            @SuppressWarnings("unchecked")
-            Map<String, Object> stringMap = (Map<String, Object>) map;
-            ItemStack item = ItemStack.deserialize(stringMap);
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException ignored) {
+            return def;
+        }
+    }
+    
+    /**
+     * Build an item from a map written by hand: any material spelling, amounts as text and
+     * meta given as a plain map
+     */
+    private static ItemStack fromHandWritten(Map<?, ?> map) {
+        Object typeObj = map.get("type");
+        Material material = typeObj != null ? materialOf(typeObj.toString()) : null;
+        if (material == null) {
+            return new ItemStack(Material.STONE);
+        }
+        
+        int amount = toInt(map.get("amount"), 1);
+        Object metaObj = map.get("meta");
+        
+        if (metaObj instanceof ItemMeta) {
+            ItemStack item = new ItemStack(material, amount);
+            item.setItemMeta((ItemMeta) metaObj);
             return item;
-        } catch (Exception e) {
-            // If deserialization fails, try to create manually
-            try {
-                Object typeObj = map.get("type");
-                Object amountObj = map.get("amount");
-                
-                if (typeObj == null) {
-                    return new ItemStack(Material.STONE);
+        }
+        
+        ItemBuilder builder = new ItemBuilder(material, amount);
+        
+        // Handle meta if present
+        if (metaObj instanceof Map) {
+            Map<?, ?> metaMap = (Map<?, ?>) metaObj;
+            
+            Object displayNameObj = metaMap.get("display-name");
+            if (displayNameObj != null) {
+                builder.name(displayNameObj.toString());
+            }
+            
+            Object loreObj = metaMap.get("lore");
+            if (loreObj instanceof List) {
+                List<String> lore = new ArrayList<>();
+                for (Object line : (List<?>) loreObj) {
+                    lore.add(String.valueOf(line));
                 }
-                
-                String type = typeObj.toString();
-                int amount = 1;
-                
-                if (amountObj instanceof Number) {
-                    amount = ((Number) amountObj).intValue();
-                } else if (amountObj != null) {
-                    try {
-                        amount = Integer.parseInt(amountObj.toString());
-                    } catch (NumberFormatException ignored) {
-                        amount = 1;
+                builder.lore(lore);
+            }
+            
+            Object enchantsObj = metaMap.get("enchants");
+            if (enchantsObj instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) enchantsObj).entrySet()) {
+                    Enchantment enchant = enchantmentOf(String.valueOf(entry.getKey()));
+                    if (enchant != null) {
+                        builder.unsafeEnchant(enchant, toInt(entry.getValue(), 1));
                     }
                 }
-                
-                Material material;
-                try {
-                    material = Material.valueOf(type.toUpperCase());
-                } catch (IllegalArgumentException ex) {
-                    material = Material.STONE;
+            }
+            
+            Object customModelDataObj = metaMap.get("custom-model-data");
+            if (customModelDataObj != null) {
+                int customModelData = toInt(customModelDataObj, Integer.MIN_VALUE);
+                if (customModelData != Integer.MIN_VALUE) {
+                    builder.customModelData(customModelData);
                 }
-                
-                ItemBuilder builder = new ItemBuilder(material, amount);
-                
-                // Handle meta if present
-                Object metaObj = map.get("meta");
-                if (metaObj instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> metaMap = (Map<String, Object>) metaObj;
-                    
-                    Object displayNameObj = metaMap.get("display-name");
-                    if (displayNameObj != null) {
-                        builder.name(displayNameObj.toString());
-                    }
-                    
-                    Object loreObj = metaMap.get("lore");
-                    if (loreObj instanceof List) {
-                        @SuppressWarnings("unchecked")
-                        List<String> lore = (List<String>) loreObj;
-                        builder.lore(lore);
-                    }
-                    
-                    Object enchantsObj = metaMap.get("enchants");
-                    if (enchantsObj instanceof Map) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> enchants = (Map<String, Object>) enchantsObj;
-                        for (Map.Entry<String, Object> entry : enchants.entrySet()) {
-                            try {
-                                Enchantment enchant = Enchantment.getByName(entry.getKey());
-                                if (enchant != null) {
-                                    int level = 1;
-                                    if (entry.getValue() instanceof Number) {
-                                        level = ((Number) entry.getValue()).intValue();
-                                    } else if (entry.getValue() != null) {
-                                        try {
-                                            level = Integer.parseInt(entry.getValue().toString());
-                                        } catch (NumberFormatException ignored) {
-                                            level = 1;
-                                        }
-                                    }
-                                    builder.unsafeEnchant(enchant, level);
-                                }
-                            } catch (Exception ignored) {}
-                        }
-                    }
-                    
-                    Object customModelDataObj = metaMap.get("custom-model-data");
-                    if (customModelDataObj instanceof Number) {
-                        builder.customModelData(((Number) customModelDataObj).intValue());
-                    } else if (customModelDataObj != null) {
-                        try {
-                            int customModelData = Integer.parseInt(customModelDataObj.toString());
-                            builder.customModelData(customModelData);
-                        } catch (NumberFormatException ignored) {}
-                    }
-                    
-                    Object unbreakableObj = metaMap.get("unbreakable");
-                    if (unbreakableObj instanceof Boolean) {
-                        builder.unbreakable((Boolean) unbreakableObj);
-                    } else if (unbreakableObj != null) {
-                        builder.unbreakable(Boolean.parseBoolean(unbreakableObj.toString()));
-                    }
+            }
+            
+            Object unbreakableObj = metaMap.get("unbreakable");
+            if (unbreakableObj instanceof Boolean) {
+                builder.unbreakable((Boolean) unbreakableObj);
+            } else if (unbreakableObj != null) {
+                builder.unbreakable(Boolean.parseBoolean(unbreakableObj.toString()));
+            }
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * How a config map describes an item
+     */
+    public enum Schema {
+        /** Output of ItemStack#serialize, with a data version */
+        SERIALIZED,
+        /** Pre-1.13 serialized item, converted by Bukkit's legacy support */
+        LEGACY,
+        /** Type, amount and an optional plain meta map written by hand */
+        HAND_WRITTEN,
+        /** No usable type, replaced by stone */
+        INVALID
+    }
+    
+    // Built on first use; read-only afterwards
+    private static final class Lookups {
+        private static final Map<String, Material> MATERIALS = new HashMap<>();
+        private static final Set<String> LEGACY_MATERIALS = new HashSet<>();
+        private static final Map<String, Enchantment> ENCHANTMENTS = new HashMap<>();
+        
+        static {
+            for (Material material : Material.values()) {
+                String name = material.name();
+                if (name.startsWith(LEGACY_PREFIX)) {
+                    LEGACY_MATERIALS.add(name.substring(LEGACY_PREFIX.length()));
+                } else {
+                    MATERIALS.put(name, material);
                 }
-                
-                return builder.build();
-            } catch (Exception ex) {
-                // Last resort - return a basic item
-                return new ItemStack(Material.STONE);
             }
+            
+            for (Enchantment enchantment : Registry.ENCHANTMENT) {
+                ENCHANTMENTS.put(enchantment.getKey().getKey().toUpperCase(Locale.ROOT), enchantment);
+                ENCHANTMENTS.putIfAbsent(legacyName(enchantment), enchantment);
+            }
+        }
+        
+        @SuppressWarnings("deprecation")
+        private static String legacyName(Enchantment enchantment) {
+            return enchantment.getName().toUpperCase(Locale.ROOT);
+        }
+        
+        private Lookups() {
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.turjo.uniquekits.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-file count of the schemas {@link ItemBuilder#fromMap} saw, to spot files full of
+ * legacy or broken items
+ */
+public class ItemImportStats {
+    
+    private final String source;
+    private final AtomicLongArray counts = new AtomicLongArray(ItemBuilder.Schema.values().length);
+    
+    public ItemImportStats(String source) {
+        this.source = source;
+    }
+    
+    public void record(ItemBuilder.Schema schema) {
+        counts.incrementAndGet(schema.ordinal());
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public long get(ItemBuilder.Schema schema) {
+        return counts.get(schema.ordinal());
+    }
+    
+    /**
+     * Whether any item needed the legacy path or could not be read
+     */
+    public boolean hasProblems() {
+        return get(ItemBuilder.Schema.LEGACY) > 0 || get(ItemBuilder.Schema.INVALID) > 0;
+    }
+    
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+}
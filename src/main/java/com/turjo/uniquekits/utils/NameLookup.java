@@ -0,0 +1,102 @@
+package com.turjo.uniquekits.utils;
+
+import org.bukkit.Keyed;
+import org.bukkit.Particle;
+import org.bukkit.Registry;
+import org.bukkit.Sound;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cached, exception-free lookups of sounds, particles and potion effect types by config name.
+ * Names match in any case, with dots, dashes or spaces for underscores and an optional
+ * {@code minecraft:} prefix, so both {@code ENTITY_PLAYER_LEVELUP} and {@code entity.player.levelup} work.
+ * Each table is built from its registry on first use.
+ */
+public final class NameLookup {
+    
+    private NameLookup() {
+    }
+    
+    public static Sound sound(String name) {
+        return name == null ? null : Sounds.TABLE.get(normalize(name));
+    }
+    
+    public static Particle particle(String name) {
+        return name == null ? null : Particles.TABLE.get(normalize(name));
+    }
+    
+    @SuppressWarnings("deprecation")
+    public static PotionEffectType potionEffectType(String name) {
+        if (name == null) {
+            return null;
+        }
+        PotionEffectType type = PotionEffects.TABLE.get(normalize(name));
+        // Bukkit knows a few more aliases; a miss here is rare and only costs a registry lookup
+        return type != null ? type : PotionEffectType.getByName(name.trim());
+    }
+    
+    static String normalize(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        if (normalized.startsWith("MINECRAFT:")) {
+            normalized = normalized.substring("MINECRAFT:".length());
+        }
+        return normalized.replace('.', '_').replace('-', '_').replace(' ', '_');
+    }
+    
+    private static <T extends Keyed> Map<String, T> byKey(Iterable<T> registry) {
+        Map<String, T> table = new HashMap<>();
+        for (T entry : registry) {
+            table.put(normalize(entry.getKey().getKey()), entry);
+        }
+        return table;
+    }
+    
+    private static final class Sounds {
+        private static final Map<String, Sound> TABLE = byKey(Registry.SOUNDS);
+    }
+    
+    private static final class Particles {
+        private static final Map<String, Particle> TABLE = byKey(Registry.PARTICLE_TYPE);
+        
+        static {
+            // Names used before 1.20.5, as found in older configs
+            String[][] renamed = {
+                {"VILLAGER_HAPPY", "HAPPY_VILLAGER"}, {"VILLAGER_ANGRY", "ANGRY_VILLAGER"},
+                {"SPELL", "EFFECT"}, {"SPELL_INSTANT", "INSTANT_EFFECT"}, {"SPELL_MOB", "ENTITY_EFFECT"},
+                {"SPELL_WITCH", "WITCH"}, {"CRIT_MAGIC", "ENCHANTED_HIT"}, {"ENCHANTMENT_TABLE", "ENCHANT"},
+                {"FIREWORKS_SPARK", "FIREWORK"}, {"TOTEM", "TOTEM_OF_UNDYING"}, {"REDSTONE", "DUST"},
+                {"SMOKE_NORMAL", "SMOKE"}, {"SMOKE_LARGE", "LARGE_SMOKE"}, {"EXPLOSION_NORMAL", "POOF"},
+                {"EXPLOSION_LARGE", "EXPLOSION"}, {"EXPLOSION_HUGE", "EXPLOSION_EMITTER"},
+                {"WATER_BUBBLE", "BUBBLE"}, {"WATER_SPLASH", "SPLASH"}, {"WATER_WAKE", "FISHING"},
+                {"SUSPENDED", "UNDERWATER"}, {"DRIP_WATER", "DRIPPING_WATER"}, {"DRIP_LAVA", "DRIPPING_LAVA"},
+                {"TOWN_AURA", "MYCELIUM"}, {"SNOWBALL", "ITEM_SNOWBALL"}, {"SLIME", "ITEM_SLIME"}
+            };
+            for (String[] names : renamed) {
+                Particle particle = TABLE.get(names[1]);
+                if (particle != null) {
+                    TABLE.putIfAbsent(names[0], particle);
+                }
+            }
+        }
+    }
+    
+    private static final class PotionEffects {
+        private static final Map<String, PotionEffectType> TABLE = byKey(Registry.EFFECT);
+        
+        static {
+            // Bukkit names such as INCREASE_DAMAGE for strength
+            for (PotionEffectType type : Registry.EFFECT) {
+                TABLE.putIfAbsent(legacyName(type), type);
+            }
+        }
+        
+        @SuppressWarnings("deprecation")
+        private static String legacyName(PotionEffectType type) {
+            return normalize(type.getName());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.turjo.uniquekits.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level covering 64 times the span
+ * of the one below. Scheduling is O(1) and every entry is moved down at most once per level
+ * before it fires, so expiry is O(1) amortized no matter how many timers are pending.
+ * With 50ms ticks the levels span 3.2s, 3.4min, 3.6h and 9.7 days; later deadlines park
+ * in the top level and are placed again when it comes around.
+ * Not thread-safe, meant to be driven from the server thread.
+ */
+public class TimingWheel<T> {
+    
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    
+    private final long tickMillis;
+    private final List<ArrayDeque<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+    
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+    
+    /**
+     * Fire {@code value} once the clock passes {@code deadlineMillis}
+     */
+    public void schedule(long deadlineMillis, T value) {
+        // Round up so an entry never fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        place(new Entry<>(deadlineTick, value));
+        size++;
+    }
+    
+    /**
+     * Advance the clock to {@code nowMillis}, passing every expired value to {@code expired}
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        
+        while (currentTick < targetTick) {
+            currentTick++;
+            
+            // Move the entries of each higher level slot that just came around one level down
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(slot(level, digit(currentTick, level)));
+            }
+            
+            ArrayDeque<Entry<T>> due = slot(0, digit(currentTick, 0));
+            Entry<T> entry;
+            while ((entry = due.poll()) != null) {
+                if (entry.deadlineTick > currentTick) {
+                    place(entry);
+                    continue;
+                }
+                size--;
+                expired.accept(entry.value);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void cascade(ArrayDeque<Entry<T>> slot) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            place(slot.poll());
+        }
+    }
+    
+    private void place(Entry<T> entry) {
+        long delta = Math.max(1, entry.deadlineTick - currentTick);
+        long target = currentTick + delta;
+        
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                slot(level, digit(target, level)).add(entry);
+                return;
+            }
+        }
+        
+        // Beyond the wheel: park in the top level slot reached last, it is placed again from there
+        slot(LEVELS - 1, (digit(currentTick, LEVELS - 1) - 1) & MASK).add(entry);
+    }
+    
+    private ArrayDeque<Entry<T>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+    
+    private static int digit(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & MASK;
+    }
+    
+    private static final class Entry<T> {
+        private final long deadlineTick;
+        private final T value;
+        
+        private Entry(long deadlineTick, T value) {
+            this.deadlineTick = deadlineTick;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.turjo.uniquekits.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The incrementally kept aggregates must always match what a full scan of the kit state gives.
+ * Kit ordinals are global, so every test uses kit IDs of its own.
+ */
+class PlayerDataTest {
+    
+    private static final long HOUR = 60 * 60 * 1000L;
+    
+    @Test
+    void usageAggregatesFollowAddAndSet() {
+        String a = kitId("a");
+        String b = kitId("b");
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        
+        data.addKitUsage(a);
+        data.addKitUsage(a);
+        data.addKitUsage(a);
+        data.addKitUsage(b);
+        assertEquals(4, data.getTotalKitsUsed());
+        assertEquals(a, data.getMostUsedKit());
+        
+        data.setKitUsageCount(b, 7);
+        assertEquals(10, data.getTotalKitsUsed());
+        assertEquals(b, data.getMostUsedKit());
+        
+        data.setKitUsageCount(b, 0);
+        assertEquals(3, data.getTotalKitsUsed());
+        assertEquals(a, data.getMostUsedKit());
+        
+        data.setKitUsageCount(a, -5);
+        assertEquals(0, data.getTotalKitsUsed());
+        assertNull(data.getMostUsedKit());
+        assertConsistent(data);
+    }
+    
+    @Test
+    void mostUsedIsRecomputedWhenTheLeaderDrops() {
+        String a = kitId("a");
+        String b = kitId("b");
+        String c = kitId("c");
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        
+        data.setKitUsageCount(a, 5);
+        data.setKitUsageCount(b, 3);
+        data.setKitUsageCount(c, 4);
+        assertEquals(a, data.getMostUsedKit());
+        
+        data.setKitUsageCount(a, 1);
+        assertEquals(c, data.getMostUsedKit());
+        assertEquals(8, data.getTotalKitsUsed());
+        assertConsistent(data);
+    }
+    
+    @Test
+    void cooldownAggregatesFollowSetAndClear() {
+        String a = kitId("a");
+        String b = kitId("b");
+        long now = System.currentTimeMillis();
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        
+        data.setKitCooldown(a, now + 2 * HOUR);
+        data.setKitCooldown(b, now + HOUR);
+        assertEquals(2, data.getActiveCooldowns());
+        assertEquals(now + HOUR, data.getNextCooldownExpiry());
+        
+        // A cooldown that already ended is not stored
+        data.setKitCooldown(b, now - 1);
+        assertEquals(1, data.getActiveCooldowns());
+        assertTrue(data.getNextCooldownExpiry() <= now + 2 * HOUR);
+        
+        data.clearKitCooldown(a);
+        assertEquals(0, data.getActiveCooldowns());
+        assertConsistent(data);
+    }
+    
+    @Test
+    void expiredCooldownsArePurged() {
+        String expired = kitId("expired");
+        String active = kitId("active");
+        long now = System.currentTimeMillis();
+        
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("kit-cooldowns." + expired, now - HOUR);
+        config.set("kit-cooldowns." + active, now + HOUR);
+        PlayerData data = PlayerData.fromConfig(UUID.randomUUID(), config);
+        
+        // Loaded as stored; reading the count skips the expired cooldown without purging it
+        assertEquals(1, data.getActiveCooldowns());
+        assertEquals(now - HOUR, data.getNextCooldownExpiry());
+        assertEquals(2, data.getAllKitCooldowns().size());
+        
+        data.cleanup();
+        assertEquals(1, data.getActiveCooldowns());
+        assertEquals(now + HOUR, data.getNextCooldownExpiry());
+        assertEquals(Collections.singletonMap(active, now + HOUR), data.getAllKitCooldowns());
+        
+        data.clearAllCooldowns();
+        data.cleanup();
+        assertEquals(0, data.getActiveCooldowns());
+        assertEquals(Long.MAX_VALUE, data.getNextCooldownExpiry());
+    }
+    
+    @Test
+    void expiredCooldownIsOnlyDroppedByExpireCooldown() {
+        String kit = kitId("kit");
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("kit-cooldowns." + kit, System.currentTimeMillis() - 1);
+        PlayerData data = PlayerData.fromConfig(UUID.randomUUID(), config);
+        
+        // Reading leaves the stored entry alone
+        assertFalse(data.isKitOnCooldown(kit));
+        assertEquals(1, data.getAllKitCooldowns().size());
+        
+        data.expireCooldown(kit);
+        assertTrue(data.getAllKitCooldowns().isEmpty());
+        assertEquals(0, data.getActiveCooldowns());
+        assertConsistent(data);
+    }
+    
+    @Test
+    void aggregatesSurviveAYamlLoad() {
+        PlayerData data = randomlyEdited(new Random(13), 200);
+        
+        YamlConfiguration config = new YamlConfiguration();
+        data.saveToConfig(config);
+        PlayerData loaded = PlayerData.fromConfig(data.getPlayerId(), config);
+        
+        assertSameAggregates(data, loaded);
+        assertConsistent(loaded);
+    }
+    
+    @Test
+    void aggregatesSurviveABinaryLoad() throws Exception {
+        PlayerData data = randomlyEdited(new Random(31), 200);
+        
+        PlayerData loaded = PlayerDataCodec.decode(data.getPlayerId(), PlayerDataCodec.encode(data.snapshot()));
+        
+        assertSameAggregates(data, loaded);
+        assertConsistent(loaded);
+    }
+    
+    @Test
+    void aggregatesStayConsistentUnderBulkEdits() {
+        Random random = new Random(7);
+        String[] kits = kitIds(8);
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        
+        for (int i = 0; i < 2000; i++) {
+            edit(data, kits, random);
+            assertConsistent(data);
+        }
+        
+        data.clearAllCooldowns();
+        for (String kit : kits) {
+            data.setKitUsageCount(kit, 0);
+        }
+        assertEquals(0, data.getTotalKitsUsed());
+        assertNull(data.getMostUsedKit());
+        assertEquals(0, data.getActiveCooldowns());
+    }
+    
+    private static PlayerData randomlyEdited(Random random, int edits) {
+        String[] kits = kitIds(6);
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        for (int i = 0; i < edits; i++) {
+            edit(data, kits, random);
+        }
+        return data;
+    }
+    
+    private static void edit(PlayerData data, String[] kits, Random random) {
+        String kit = kits[random.nextInt(kits.length)];
+        long now = System.currentTimeMillis();
+        
+        switch (random.nextInt(5)) {
+            case 0:
+                data.addKitUsage(kit);
+                break;
+            case 1:
+                data.setKitUsageCount(kit, random.nextInt(10));
+                break;
+            case 2:
+                data.setKitCooldown(kit, now + HOUR + random.nextInt(1000) * 1000L);
+                break;
+            case 3:
+                data.setKitCooldown(kit, now - random.nextInt(1000));
+                break;
+            default:
+                data.clearKitCooldown(kit);
+                break;
+        }
+    }
+    
+    /**
+     * Compare the aggregates with a full scan of the stored kit state
+     */
+    private static void assertConsistent(PlayerData data) {
+        Map<String, Integer> usages = data.getAllKitUsages();
+        int total = usages.values().stream().mapToInt(Integer::intValue).sum();
+        int most = usages.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        assertEquals(total, data.getTotalKitsUsed());
+        if (most == 0) {
+            assertNull(data.getMostUsedKit());
+        } else {
+            assertEquals(most, data.getKitUsageCount(data.getMostUsedKit()));
+        }
+        
+        Map<String, Long> cooldowns = data.getAllKitCooldowns();
+        long earliest = cooldowns.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+        assertTrue(data.getNextCooldownExpiry() <= earliest, "next expiry must not be after the earliest cooldown");
+        
+        long now = System.currentTimeMillis();
+        long active = cooldowns.values().stream().filter(expireTime -> expireTime > now).count();
+        assertEquals(active, data.getActiveCooldowns());
+    }
+    
+    private static void assertSameAggregates(PlayerData expected, PlayerData actual) {
+        assertEquals(expected.getAllKitUsages(), actual.getAllKitUsages());
+        assertEquals(expected.getAllKitCooldowns(), actual.getAllKitCooldowns());
+        assertEquals(expected.getTotalKitsUsed(), actual.getTotalKitsUsed());
+        assertEquals(expected.getActiveCooldowns(), actual.getActiveCooldowns());
+        if (expected.getMostUsedKit() == null) {
+            assertNull(actual.getMostUsedKit());
+        } else {
+            assertEquals(expected.getKitUsageCount(expected.getMostUsedKit()), actual.getKitUsageCount(actual.getMostUsedKit()));
+        }
+    }
+    
+    private static String[] kitIds(int count) {
+        String[] kits = new String[count];
+        for (int i = 0; i < count; i++) {
+            kits[i] = kitId("kit" + i);
+        }
+        return kits;
+    }
+    
+    private static String kitId(String name) {
+        return name + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}